@@ -1,13 +1,29 @@
 package cs151.application;
 
 import javafx.application.Application;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import cs151.view.HomePageView;
+import cs151.model.DataContext;
+import cs151.util.UICreator;
 
 public class Main extends Application {
     @Override
     public void start(Stage stage) {
-        HomePageView homePageView = new HomePageView(stage);
-        homePageView.view();
+        // The data files are read on a virtual thread; the window shows progress meanwhile
+        VBox loading = UICreator.showLoading(stage, "HomePageView", "Loading student data...");
+        UICreator.onFxThread(DataContext.load(), context -> {
+            HomePageView homePageView = new HomePageView(stage);
+            homePageView.view();
+        }, error -> {
+            System.err.println("Failed to load data: " + error.getMessage());
+            loading.getChildren().setAll(new Label("Failed to load data: " + error.getMessage()));
+        });
+    }
+
+    @Override
+    public void stop() {
+        DataContext.close();
     }
 }
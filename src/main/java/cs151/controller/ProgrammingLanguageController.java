@@ -1,5 +1,6 @@
 package cs151.controller;
 
+import cs151.model.DataContext;
 import cs151.model.ProgrammingLanguageRepository;
 import cs151.util.ValidationUtils;
 import java.util.List;
@@ -8,10 +9,19 @@ public class ProgrammingLanguageController {
     private final ProgrammingLanguageRepository repo;
 
     /**
-     * Constructs a new ProgrammingLanguageController with a default repository.
+     * Constructs a new ProgrammingLanguageController backed by the shared repository.
      */
     public ProgrammingLanguageController() {
-        this.repo = new ProgrammingLanguageRepository();
+        this(DataContext.get().languages());
+    }
+
+    /**
+     * Constructs a new ProgrammingLanguageController backed by the given repository.
+     *
+     * @param repo the repository holding the programming languages
+     */
+    public ProgrammingLanguageController(ProgrammingLanguageRepository repo) {
+        this.repo = repo;
     }
 
     /**
@@ -0,0 +1,126 @@
+package cs151.controller;
+
+import cs151.model.DataContext;
+import cs151.model.Page;
+import cs151.model.Student;
+import cs151.model.StudentFacets;
+import cs151.model.StudentReport;
+import cs151.model.StudentReport.ValueCount;
+import cs151.model.StudentRepository;
+import cs151.model.StudentRow;
+import cs151.model.index.StudentIndexes;
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ReportController {
+    // Attributes each report breaks its members down by
+    private static final List<Attribute> BREAKDOWN_ATTRIBUTES = List.of(Attribute.STATUS, Attribute.ROLE,
+            Attribute.LANGUAGE);
+
+    private final StudentRepository studentRepository;
+
+    /**
+     * Constructs a new ReportController backed by the shared StudentRepository.
+     */
+    public ReportController() {
+        this(DataContext.get().students());
+    }
+
+    /**
+     * Constructs a new ReportController backed by the given repository.
+     *
+     * @param studentRepository the repository to report on
+     */
+    public ReportController(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /**
+     * Builds the report for the students with any of the given flags set,
+     * straight from the flag and attribute bitmaps: membership is the union
+     * of the flags' bitmaps and each breakdown count is one bitmap
+     * intersection. The report on every student reads the running value
+     * counts instead.
+     *
+     * @param flags the flags, such as {@link Flag#WHITELISTED}, or an empty set to report on every student
+     * @return the report
+     */
+    public StudentReport report(Set<Flag> flags) {
+        Set<Flag> selected = flags.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(flags));
+        synchronized (studentRepository) {
+            StudentIndexes indexes = studentRepository.getIndexes();
+            BitSet members;
+            if (selected.isEmpty()) {
+                members = indexes.all();
+            } else {
+                members = new BitSet();
+                for (Flag flag : selected) {
+                    members.or(indexes.withFlag(flag, true));
+                }
+            }
+            Map<Attribute, List<ValueCount>> breakdowns = new LinkedHashMap<>();
+            for (Attribute attribute : BREAKDOWN_ATTRIBUTES) {
+                breakdowns.put(attribute, sorted(!selected.isEmpty()
+                        ? indexes.countByValue(attribute, members)
+                        : indexes.countByValue(attribute)));
+            }
+            return new StudentReport(selected, members, breakdowns);
+        }
+    }
+
+    /**
+     * Gets the running student counts: per flag, and per value of every
+     * attribute. The counts are kept up to date as students are added,
+     * updated and deleted, so this costs one read per distinct value and
+     * never visits a student.
+     *
+     * @return the current counts
+     */
+    public StudentFacets facets() {
+        synchronized (studentRepository) {
+            StudentIndexes indexes = studentRepository.getIndexes();
+            Map<Flag, Integer> flagCounts = new EnumMap<>(Flag.class);
+            for (Flag flag : Flag.values()) {
+                flagCounts.put(flag, indexes.countWithFlag(flag));
+            }
+            Map<Attribute, List<ValueCount>> valueCounts = new EnumMap<>(Attribute.class);
+            for (Attribute attribute : Attribute.values()) {
+                valueCounts.put(attribute, sorted(indexes.countByValue(attribute)));
+            }
+            return new StudentFacets(indexes.size(), flagCounts, valueCounts);
+        }
+    }
+
+    /**
+     * Orders value counts most common first, then by value.
+     */
+    private static List<ValueCount> sorted(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new ValueCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingInt(ValueCount::count).reversed()
+                        .thenComparing(ValueCount::value, String.CASE_INSENSITIVE_ORDER))
+                .toList();
+    }
+
+    /**
+     * Gets a loader for the pages of a report's members, ordered by name.
+     *
+     * @param report the report
+     * @return a loader for pages of the members
+     */
+    public Page.Loader<StudentRow> members(StudentReport report) {
+        return (cursor, limit) -> {
+            Page<Student> page = studentRepository.findPage(report.members(), cursor, limit);
+            return new Page<>(page.items().stream().map(StudentRow::of).toList(), page.nextCursor(), page.total());
+        };
+    }
+}
@@ -1,70 +1,228 @@
 package cs151.controller;
 
+import cs151.model.DataContext;
+import cs151.model.Page;
 import cs151.model.Student;
 import cs151.model.StudentRepository;
+import cs151.model.StudentRow;
+import cs151.model.index.StudentIndexes;
+import cs151.model.index.StudentIndexes.Field;
+import cs151.model.query.Query;
+import cs151.model.query.QueryCache;
+import cs151.model.query.QueryParser;
+import cs151.model.query.QueryPlanner;
+import cs151.model.query.RelevanceRanker;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
 
 public class SearchController {
+    // How many similar names to suggest when a search matches nothing
+    private static final int MAX_SUGGESTIONS = 5;
+    // How many matches a search result holds before more pages are loaded
+    private static final int FIRST_PAGE_SIZE = 50;
+
+    // How many queries a controller with its own cache keeps matches for
+    private static final int QUERY_CACHE_CAPACITY = 64;
+
     private final StudentRepository studentRepository;
+    private final QueryCache queryCache;
 
     /**
-     * Constructs a new SearchController with a default StudentRepository.
+     * Constructs a new SearchController backed by the shared StudentRepository
+     * and query cache.
      */
     public SearchController() {
-        this.studentRepository = new StudentRepository();
+        this(DataContext.get().students(), DataContext.get().queryCache());
     }
 
     /**
-     * Performs a search across all student fields using a string
+     * Constructs a new SearchController backed by the given repository, with
+     * a query cache of its own.
      *
-     * @param searchTerm The term to search for
-     * @return List of student names matching the search term
+     * @param studentRepository the repository to search
      */
-    public List<String> globalSearch(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return studentRepository.getAllStudents().stream()
-                    .map(Student::getFullName)
-                    .toList();
+    public SearchController(StudentRepository studentRepository) {
+        this(studentRepository, new QueryCache(QUERY_CACHE_CAPACITY));
+    }
+
+    /**
+     * Constructs a new SearchController backed by the given repository and
+     * query cache.
+     *
+     * @param studentRepository the repository to search
+     * @param queryCache        the cache of query matches over that repository
+     */
+    public SearchController(StudentRepository studentRepository, QueryCache queryCache) {
+        this.studentRepository = studentRepository;
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Outcome of a structured search, kept so that a refined query can search
+     * within it instead of over every student.
+     *
+     * @param query       the parsed query
+     * @param matches     IDs of all matching students; must not be modified
+     * @param version     the repository version the matches were computed at
+     * @param rankedIds   IDs of the best matches by relevance, best first, or
+     *                    null if the result is every match by name
+     * @param firstPage   the first rows to show; see {@link #pages} for the rest
+     * @param suggestions names close to the query's terms when nothing matched
+     */
+    public record SearchResult(Query query, BitSet matches, long version, List<Long> rankedIds,
+            Page<StudentRow> firstPage, List<String> suggestions) {
+        /**
+         * Checks whether the result holds only the best matches by relevance.
+         *
+         * @return true if the result is ranked
+         */
+        public boolean ranked() {
+            return rankedIds != null;
         }
-        String normalizedSearchTerm = searchTerm.toLowerCase().trim();
-        List<Student> allStudents = studentRepository.getAllStudents();
-        List<Student> matchingStudents = new ArrayList<>();
+    }
 
-        for (Student student : allStudents) {
-            if (matchesGlobalSearch(student, normalizedSearchTerm)) {
-                matchingStudents.add(student);
+    /**
+     * Gets a loader for the pages of a search result. Relevance-ranked results
+     * page through their ranked IDs; others page through every match by name.
+     * Either way the students are read again for every page, so pages show
+     * their current data and leave out students deleted since the search.
+     *
+     * @param result the search result
+     * @return a loader for pages of the result's students
+     */
+    public Page.Loader<StudentRow> pages(SearchResult result) {
+        if (result.ranked()) {
+            return (cursor, limit) -> rankedPage(result.rankedIds(), cursor, limit);
+        }
+        return (cursor, limit) -> toRows(studentRepository.findPage(result.matches(), cursor, limit));
+    }
+
+    /**
+     * Reads one page of ranked students in rank order. The cursor is the
+     * position in the ranking after the previous page and the total counted
+     * for the first page. Only the students on the page are copied; the rest
+     * are only checked for existence.
+     */
+    private Page<StudentRow> rankedPage(List<Long> rankedIds, String cursor, int limit) {
+        int position = 0;
+        int total = -1;
+        if (cursor != null) {
+            int colon = cursor.indexOf(':');
+            try {
+                position = Integer.parseInt(cursor.substring(0, colon));
+                total = Integer.parseInt(cursor.substring(colon + 1));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
             }
         }
-        return matchingStudents.stream()
-                .map(Student::getFullName)
-                .toList();
+        synchronized (studentRepository) {
+            if (total < 0) {
+                total = 0;
+                for (long id : rankedIds) {
+                    if (studentRepository.contains(id)) {
+                        total++;
+                    }
+                }
+            }
+            List<StudentRow> rows = new ArrayList<>(Math.min(limit, rankedIds.size()));
+            int i = position;
+            for (; i < rankedIds.size() && rows.size() < limit; i++) {
+                Student student = studentRepository.findById(rankedIds.get(i));
+                if (student != null) {
+                    rows.add(StudentRow.of(student));
+                }
+            }
+            while (i < rankedIds.size() && !studentRepository.contains(rankedIds.get(i))) {
+                i++;
+            }
+            return new Page<>(rows, i < rankedIds.size() ? i + ":" + total : null, total);
+        }
     }
 
     /**
-     * Checks if a student matches the global search term across any field.
+     * Gets one page of all students, ordered by name.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit  the maximum number of students on the page
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Page<StudentRow> allStudents(String cursor, int limit) {
+        return toRows(studentRepository.findPage(null, cursor, limit));
+    }
+
+    /**
+     * Searches students with the structured query syntax. Matches of recent
+     * queries are served from the query cache while the fields they read are
+     * unchanged. Otherwise, if the query only narrows the previous one, for
+     * example because a term was typed further, and no student changed since,
+     * only the previous matches are searched. Safe to call from a background
+     * thread. See {@link QueryParser} for the syntax and {@link RelevanceRanker}
+     * for the ranking.
+     *
+     * @param query    the query text; blank matches every student
+     * @param previous the result of the previous search, or null
+     * @param limit    if positive, rank the matches and keep only this many of
+     *                 the most relevant, best first; otherwise page through
+     *                 every match by name
+     * @return the matching students
+     * @throws IllegalArgumentException if the query is malformed
+     * @throws java.util.concurrent.CancellationException if the thread is interrupted
      */
-    private boolean matchesGlobalSearch(Student s, String term) {
-        if (containsIgnoreCase(s.getFullName(), term)
-                || containsIgnoreCase(s.getAcademicStatus(), term)
-                || containsIgnoreCase(s.getJobDetails(), term)
-                || containsIgnoreCase(s.getPreferredProfessionalRole(), term)
-                || ("employed".contains(term) && s.isEmployed())
-                || ("unemployed".contains(term) && !s.isEmployed())
-                || ("whitelist".contains(term) && s.isWhitelisted())
-                || ("blacklist".contains(term) && s.isBlacklisted())) {
-            return true;
+    public SearchResult search(String query, SearchResult previous, int limit) {
+        Query parsed = QueryParser.parse(query);
+        synchronized (studentRepository) {
+            long version = studentRepository.getVersion();
+            Set<Field> fields = QueryCache.fields(parsed);
+            StudentIndexes indexes = studentRepository.getIndexes(fields);
+            BitSet matches = queryCache.get(parsed, studentRepository.getChangedAt(fields));
+            if (matches == null) {
+                QueryPlanner planner = new QueryPlanner(indexes);
+                matches = previous != null && previous.version() == version
+                        && QueryPlanner.narrows(parsed, previous.query())
+                        ? planner.execute(parsed, previous.matches())
+                        : planner.execute(parsed);
+                queryCache.put(parsed, matches, version);
+            }
+            List<String> suggestions = matches.isEmpty() ? suggestNames(parsed, indexes) : List.of();
+            if (limit <= 0) {
+                Page<StudentRow> firstPage = toRows(studentRepository.findPage(matches, null, FIRST_PAGE_SIZE));
+                return new SearchResult(parsed, matches, version, null, firstPage, suggestions);
+            }
+            List<Long> rankedIds = new RelevanceRanker(indexes)
+                    .topK(RelevanceRanker.terms(parsed), matches, limit).stream()
+                    .map(RelevanceRanker.ScoredStudent::id)
+                    .toList();
+            Page<StudentRow> firstPage = rankedPage(rankedIds, null, rankedIds.size());
+            return new SearchResult(parsed, matches, version, rankedIds, firstPage, suggestions);
         }
-        if (s.getProgrammingLanguages() != null &&
-                s.getProgrammingLanguages().stream().anyMatch(lang -> containsIgnoreCase(lang, term))) {
-            return true;
+    }
+
+    /**
+     * Finds names within a few typos of a query's terms, for a query that
+     * matched nothing.
+     */
+    private List<String> suggestNames(Query query, StudentIndexes indexes) {
+        List<String> terms = RelevanceRanker.terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
         }
+        BitSet near = indexes.withNameNear(String.join(" ", terms), QueryParser.DEFAULT_FUZZY_DISTANCE);
+        return studentRepository.findAllById(near).stream()
+                .limit(MAX_SUGGESTIONS)
+                .map(Student::getFullName)
+                .toList();
+    }
 
-        return s.getDatabasesKnown() != null &&
-                s.getDatabasesKnown().stream().anyMatch(db -> containsIgnoreCase(db, term));
+    private Page<StudentRow> toRows(Page<Student> page) {
+        return new Page<>(toRows(page.items()), page.nextCursor(), page.total());
     }
 
-    private boolean containsIgnoreCase(String text, String searchTerm) {
-        return text != null && text.toLowerCase().contains(searchTerm);
+    private List<StudentRow> toRows(List<Student> students) {
+        return students.stream()
+                .map(StudentRow::of)
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,45 @@
 package cs151.controller;
 
 import cs151.model.Comment;
+import cs151.model.DataContext;
 import cs151.model.Student;
+import cs151.model.StudentProfile;
 import cs151.model.StudentRepository;
 import cs151.util.ValidationUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class StudentProfileController {
+    /**
+     * Validation error for a name another student already has.
+     */
+    public static final String DUPLICATE_NAME_ERROR = "A student with this name already exists.";
+
     private final StudentRepository repo;
 
     /**
-     * Constructs a new StudentProfileController with a default StudentRepository.
+     * Constructs a new StudentProfileController backed by the shared StudentRepository.
      */
     public StudentProfileController() {
-        this.repo = new StudentRepository();
+        this(DataContext.get().students());
+    }
+
+    /**
+     * Constructs a new StudentProfileController backed by the given repository.
+     *
+     * @param repo the repository holding the student profiles
+     */
+    public StudentProfileController(StudentRepository repo) {
+        this.repo = repo;
     }
 
     /**
-     * Creates and adds a new student to the repository using individual parameters.
+     * Creates and adds a new student to the repository using individual
+     * parameters. The repository checks the name again as it adds the
+     * student, so of two saves with the same name only one succeeds, even if
+     * both passed {@link #validateStudentProfile}.
      *
      * @param name                 The student's full name
      * @param academicStatus       The student's academic status
@@ -34,8 +51,9 @@ public class StudentProfileController {
      * @param commentText          Optional comment text
      * @param whitelist            Whether student is whitelisted
      * @param blacklist            Whether student is blacklisted
+     * @return The ID of the new student, or 0 if another student already has the name
      */
-    public void createAndAddStudent(String name, String academicStatus, boolean employed, 
+    public long createAndAddStudent(String name, String academicStatus, boolean employed, 
             String jobDetails, List<String> programmingLanguages, List<String> databasesKnown,
             String preferredRole, String commentText, boolean whitelist, boolean blacklist) {
         
@@ -47,35 +65,31 @@ public class StudentProfileController {
 
         Student student = new Student(name, academicStatus, employed, jobDetails,
             programmingLanguages, databasesKnown, preferredRole, commentList, whitelist, blacklist);
-        repo.addStudent(student);
+        return repo.addStudent(student) ? student.getId() : 0;
     }
 
     /**
-     * Deletes a student from the repository by full name.
+     * Deletes a student from the repository by ID.
      * 
-     * @param fullName The full name of the student to delete
+     * @param studentId The ID of the student to delete
      */
-    public void deleteStudent(String fullName) {
-        repo.deleteStudent(fullName);
+    public void deleteStudent(long studentId) {
+        repo.deleteStudent(studentId);
     }
 
     /**
-     * Checks if a student name is unique within the existing student list.
+     * Checks if a student name is unique within the repository.
      *
-     * @param name        The name to check for uniqueness
-     * @param allStudents The list of existing students
+     * @param name             The name to check for uniqueness
+     * @param editingStudentId The ID of the profile being edited, which may keep its
+     *                         own name, or 0 for a new profile
      * @return true if the name is unique, false if it already exists or is empty
      */
-    private boolean isStudentNameUnique(String name, List<Student> allStudents) {
+    private boolean isStudentNameUnique(String name, long editingStudentId) {
         if (ValidationUtils.isStringEmpty(name)) {
             return false;
         }
-        for (Student student : allStudents) {
-            if (student.getFullName().equalsIgnoreCase(ValidationUtils.safeTrim(name))) {
-                return false;
-            }
-        }
-        return true;
+        return !repo.isNameTaken(name, editingStudentId);
     }
 
     /**
@@ -87,15 +101,12 @@ public class StudentProfileController {
      * @param employedSelected   Whether the "employed" option is selected
      * @param unemployedSelected Whether the "unemployed" option is selected
      * @param jobDetails         Job details
+     * @param editingStudentId   The ID of the profile being edited, or 0 for a new profile
      * @return null if validation passes, error message string if validation fails
      */
     public String validateStudentProfile(String name, String academicStatus, Set<String> knownDatabases, String preferredRole,
-                 Set<String> knownLanguages, boolean employedSelected, boolean unemployedSelected, String jobDetails, boolean edit) {
-        List<Student> allStudents = repo.getAllStudents();
-        if (edit) {
-            allStudents = allStudents.stream().filter(s -> !s.getFullName().equals(name)).collect(Collectors.toList());
-        }
-
+                 Set<String> knownLanguages, boolean employedSelected, boolean unemployedSelected, String jobDetails,
+                 long editingStudentId) {
         String trimmedName = ValidationUtils.safeTrim(name);
         String trimmedJobDetails = ValidationUtils.safeTrim(jobDetails);
 
@@ -104,8 +115,8 @@ public class StudentProfileController {
             return "Please submit a valid name.";
         } else if (!ValidationUtils.isValidFullName(trimmedName)) {
             return "Please enter a first and last name.";
-        } else if (!isStudentNameUnique(trimmedName, allStudents)) {
-            return "A student with this name already exists.";
+        } else if (!isStudentNameUnique(trimmedName, editingStudentId)) {
+            return DUPLICATE_NAME_ERROR;
         }
 
         // Academic status is selected
@@ -132,9 +143,11 @@ public class StudentProfileController {
     }
 
     /**
-     * Updates an existing student record using individual parameters.
+     * Updates an existing student record using individual parameters. As with
+     * {@link #createAndAddStudent}, the repository checks the name again as
+     * it saves.
      *
-     * @param originalName         The original name of the student to update
+     * @param studentId            The ID of the student to update
      * @param newName              The updated full name
      * @param academicStatus       The updated academic status
      * @param employed             The updated employment status
@@ -144,17 +157,20 @@ public class StudentProfileController {
      * @param preferredRole        Updated preferred professional role
      * @param whitelist            Updated whitelist status
      * @param blacklist            Updated blacklist status
+     * @return false if another student already has the new name, otherwise true
      */
-    public void updateStudentByName(String originalName, String newName, String academicStatus, 
+    public boolean updateStudentById(long studentId, String newName, String academicStatus, 
             boolean employed, String jobDetails, List<String> programmingLanguages, 
             List<String> databasesKnown, String preferredRole, boolean whitelist, boolean blacklist) {
         
-        Student student = repo.findByName(originalName);
-        if (student != null) {
-            updateStudentData(student, newName, academicStatus, employed, jobDetails, 
-                    programmingLanguages, databasesKnown, preferredRole, whitelist, blacklist);
-            repo.updateStudent(originalName, student);
+        // findById returns a copy, so the stored student only changes once updateStudent saves it
+        Student student = repo.findById(studentId);
+        if (student == null) {
+            return true;
         }
+        updateStudentData(student, newName, academicStatus, employed, jobDetails,
+                programmingLanguages, databasesKnown, preferredRole, whitelist, blacklist);
+        return repo.updateStudent(student);
     }
 
 
@@ -189,106 +205,26 @@ public class StudentProfileController {
         student.setBlacklisted(blacklist);
     }
 
-    /**
-     * Retrieves a specific field from a student by name.
-     *
-     * @param <T>         The type of the field to retrieve
-     * @param studentName The name of the student
-     * @param fieldGetter Function that extracts the desired field from a Student object
-     * @return The field value, or null if student not found
-     */
-    private <T> T getStudentField(String studentName, Function<Student, T> fieldGetter) {
-        Student student = repo.findByName(studentName);
-        return student != null ? fieldGetter.apply(student) : null;
-    }
-
     /**
      * Retrieves a student's full name.
      * 
-     * @param studentName The name of the student to look up
+     * @param studentId The ID of the student to look up
      * @return The student's full name, or null if not found
      */
-    public String getStudentFullName(String studentName) {
-        return getStudentField(studentName, Student::getFullName);
-    }
-
-    /**
-     * Retrieves a student's academic status.
-     * 
-     * @param studentName The name of the student to look up
-     * @return The student's academic status, or null if not found
-     */
-    public String getStudentAcademicStatus(String studentName) {
-        return getStudentField(studentName, Student::getAcademicStatus);
+    public String getStudentFullName(long studentId) {
+        Student student = repo.findById(studentId);
+        return student != null ? student.getFullName() : null;
     }
 
     /**
-     * Retrieves a student's job details.
-     * 
-     * @param studentName The name of the student to look up
-     * @return The student's job details, or null if not found or unemployed
-     */
-    public String getStudentJobDetails(String studentName) {
-        return getStudentField(studentName, Student::getJobDetails);
-    }
-
-    /**
-     * Retrieves a student's programming languages.
-     * 
-     * @param studentName The name of the student to look up
-     * @return List of programming languages, or null if student not found
-     */
-    public List<String> getStudentProgrammingLanguages(String studentName) {
-        return getStudentField(studentName, Student::getProgrammingLanguages);
-    }
-
-    /**
-     * Retrieves a student's known databases.
-     * 
-     * @param studentName The name of the student to look up
-     * @return List of known databases, or null if student not found
-     */
-    public List<String> getStudentDatabasesKnown(String studentName) {
-        return getStudentField(studentName, Student::getDatabasesKnown);
-    }
-
-    /**
-     * Retrieves a student's preferred professional role.
-     * 
-     * @param studentName The name of the student to look up
-     * @return The student's preferred role, or null if not found
-     */
-    public String getStudentPreferredRole(String studentName) {
-        return getStudentField(studentName, Student::getPreferredProfessionalRole);
-    }
-
-    /**
-     * Checks if a student is employed.
-     * 
-     * @param studentName The name of the student to look up
-     * @return true if student is employed, false if unemployed or not found
-     */
-    public boolean isStudentEmployed(String studentName) {
-        return Boolean.TRUE.equals(getStudentField(studentName, Student::isEmployed));
-    }
-
-    /**
-     * Checks if a student is whitelisted.
-     * 
-     * @param studentName The name of the student to look up
-     * @return true if student is whitelisted, false if not whitelisted or not found
-     */
-    public boolean isStudentWhitelisted(String studentName) {
-        return Boolean.TRUE.equals(getStudentField(studentName, Student::isWhitelisted));
-    }
-
-    /**
-     * Checks if a student is blacklisted.
-     * 
-     * @param studentName The name of the student to look up
-     * @return true if student is blacklisted, false if not blacklisted or not found
+     * Retrieves a snapshot of a student's profile, with its comment count
+     * but not the comments, in a single repository lookup. The comments are
+     * read a page at a time with {@link CommentController#commentPages}.
+     *
+     * @param studentId The ID of the student to look up
+     * @return The student's profile, or null if not found
      */
-    public boolean isStudentBlacklisted(String studentName) {
-        return Boolean.TRUE.equals(getStudentField(studentName, Student::isBlacklisted));
+    public StudentProfile getStudentProfile(long studentId) {
+        return repo.findProfileById(studentId);
     }
-}
\ No newline at end of file
+}
@@ -1,41 +1,87 @@
 package cs151.model;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 
 public class Comment {
     private final String text;
-    private LocalDate createdAt;
+    private final LocalDate createdAt;
+    private final Instant timestamp;
+    private final long sequence;
 
     /**
-     * Creates a new comment with the specified text, timestamped today
+     * Creates a new comment with the specified text, timestamped now
      *
      * @param text the content of the comment
      */
     public Comment(String text) {
+        this(text, Instant.now(), 0);
+    }
+
+    private Comment(String text, Instant timestamp, long sequence) {
+        this(text, LocalDate.ofInstant(timestamp, ZoneId.systemDefault()), timestamp, sequence);
+    }
+
+    private Comment(String text, LocalDate createdAt, Instant timestamp, long sequence) {
         this.text = text;
-        this.createdAt = LocalDate.now();
+        this.createdAt = createdAt;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
     }
 
     /**
-     * Creates a comment from database data with a specific date.
+     * Creates a comment from database data with a specific date. Comments
+     * stored before they had timestamps are placed at the start of their day.
      *
      * @param createdAtString the creation date as a string
      * @param text            the content of the comment
      * @return a new Comment instance with the specified date and text
      */
     public static Comment fromDatabase(String createdAtString, String text) {
-        Comment comment = new Comment(text);
+        return fromDatabase(0, null, createdAtString, text);
+    }
+
+    /**
+     * Creates a comment from database data with a precise timestamp and its
+     * sequence number in the comment store.
+     *
+     * @param sequence        the sequence number, or 0 if it was stored without one
+     * @param timestampString the creation instant as a string, or null if it was stored without one
+     * @param createdAtString the creation date as a string, used if there is no timestamp
+     * @param text            the content of the comment
+     * @return a new Comment instance with the specified time and text
+     */
+    public static Comment fromDatabase(long sequence, String timestampString, String createdAtString, String text) {
+        if (timestampString != null) {
+            try {
+                return new Comment(text, Instant.parse(timestampString), sequence);
+            } catch (DateTimeParseException e) {
+                // Fall back to the date
+            }
+        }
         try {
-            comment.createdAt = LocalDate.parse(createdAtString);
+            LocalDate date = LocalDate.parse(createdAtString);
+            return new Comment(text, date, date.atStartOfDay(ZoneId.systemDefault()).toInstant(), sequence);
         } catch (Exception e) {
-            comment.createdAt = LocalDate.now();
+            return new Comment(text, Instant.now(), sequence);
         }
-        return comment;
+    }
+
+    /**
+     * Copies this comment with the sequence number the comment store gave it.
+     *
+     * @param sequence the sequence number
+     * @return the numbered comment
+     */
+    public Comment withSequence(long sequence) {
+        return new Comment(text, createdAt, timestamp, sequence);
     }
 
     /**
      * Gets the text content of the comment.
-     * 
+     *
      * @return the comment text
      */
     public String getText() {
@@ -44,10 +90,30 @@ public class Comment {
 
     /**
      * Gets the date when the comment was created.
-     * 
+     *
      * @return the creation date
      */
     public LocalDate getCreatedAt() {
         return createdAt;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the instant when the comment was created.
+     *
+     * @return the creation instant
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the comment's position among all stored comments. Sequence numbers
+     * increase with every comment stored, so they order comments by when they
+     * were added even if the clock was adjusted in between.
+     *
+     * @return the sequence number, or 0 if the comment has not been stored yet
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
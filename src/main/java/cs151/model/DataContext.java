@@ -0,0 +1,143 @@
+package cs151.model;
+
+import cs151.model.query.QueryCache;
+import cs151.util.Database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide owner of the model layer's repositories. Every controller shares
+ * the same repositories, so data is loaded from disk once and stays warm for
+ * the lifetime of the application.
+ * <p>
+ * Repository calls may read or write the data files, so views run them with
+ * {@link #supplyAsync} or {@link #runAsync} rather than on the JavaFX
+ * Application Thread.
+ */
+public final class DataContext {
+    // Runs model work that may block on the data files; one virtual thread per task
+    private static final ExecutorService IO_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // How many distinct queries keep their matches cached
+    private static final int QUERY_CACHE_CAPACITY = 64;
+
+    private static DataContext instance;
+
+    private final StudentRepository studentRepository;
+    private final ProgrammingLanguageRepository languageRepository;
+    // Matches of recent searches, shared by every search controller
+    private final QueryCache queryCache;
+    // Runs searches and other reads off the JavaFX Application Thread
+    private final ExecutorService searchExecutor;
+
+    private DataContext() {
+        this.studentRepository = new StudentRepository();
+        this.languageRepository = new ProgrammingLanguageRepository();
+        this.queryCache = new QueryCache(QUERY_CACHE_CAPACITY);
+        this.searchExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "student-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the shared data context, loading it on first use.
+     *
+     * @return the shared data context
+     */
+    public static synchronized DataContext get() {
+        if (instance == null) {
+            instance = new DataContext();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the shared data context on a background thread.
+     *
+     * @return a future completed with the shared data context once it is loaded
+     */
+    public static CompletableFuture<DataContext> load() {
+        return supplyAsync(DataContext::get);
+    }
+
+    /**
+     * Runs model work on a virtual thread, so that file access never blocks
+     * the caller.
+     *
+     * @param <T>  the type of the work's result
+     * @param work the work, typically one or more controller calls
+     * @return a future completed with the work's result, or exceptionally with what it threw
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, IO_EXECUTOR);
+    }
+
+    /**
+     * Runs model work that has no result on a virtual thread.
+     *
+     * @param work the work, typically one or more controller calls
+     * @return a future completed when the work is done, or exceptionally with what it threw
+     */
+    public static CompletableFuture<Void> runAsync(Runnable work) {
+        return CompletableFuture.runAsync(work, IO_EXECUTOR);
+    }
+
+    /**
+     * Flushes pending changes to disk and releases the shared data context.
+     * The next call to get() loads a fresh one.
+     */
+    public static synchronized void close() {
+        try {
+            Database.checkpoint();
+        } catch (Exception e) {
+            System.err.println("Error checkpointing students log: " + e.getMessage());
+        }
+        if (instance != null) {
+            instance.searchExecutor.shutdownNow();
+        }
+        instance = null;
+    }
+
+    /**
+     * Gets the shared student repository.
+     *
+     * @return the student repository
+     */
+    public StudentRepository students() {
+        return studentRepository;
+    }
+
+    /**
+     * Gets the cache of recent search matches over the shared student repository.
+     *
+     * @return the query cache
+     */
+    public QueryCache queryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Gets the executor for searches that must not run on the JavaFX
+     * Application Thread. It runs one task at a time, so a superseded search
+     * should be cancelled rather than left queued.
+     *
+     * @return the search executor
+     */
+    public ExecutorService searchExecutor() {
+        return searchExecutor;
+    }
+
+    /**
+     * Gets the shared programming language repository.
+     *
+     * @return the programming language repository
+     */
+    public ProgrammingLanguageRepository languages() {
+        return languageRepository;
+    }
+}
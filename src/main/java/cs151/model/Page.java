@@ -0,0 +1,41 @@
+package cs151.model;
+
+import java.util.List;
+
+/**
+ * One page of an ordered result, with a continuation token for the next one.
+ *
+ * @param items      the items on this page
+ * @param nextCursor opaque token that continues after the last item, or null
+ *                   if this is the last page
+ * @param total      the number of items across all pages
+ * @param <T>        the item type
+ */
+public record Page<T>(List<T> items, String nextCursor, int total) {
+    /**
+     * Loads pages of an ordered result.
+     *
+     * @param <T> the item type
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * Loads the page that continues after a cursor.
+         *
+         * @param cursor the nextCursor of the previous page, or null for the first page
+         * @param limit  the maximum number of items on the page
+         * @return the page
+         * @throws IllegalArgumentException if the cursor is not one this loader issued
+         */
+        Page<T> load(String cursor, int limit);
+    }
+
+    /**
+     * Checks whether there are more items after this page.
+     *
+     * @return true if nextCursor can load another page
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,28 @@
+package cs151.model;
+
+import java.time.Instant;
+
+/**
+ * Immutable entry of the recent-comments feed: one comment with the student
+ * it is about, so the feed can be shown without going back to the repository.
+ *
+ * @param studentId   the ID of the student the comment is about
+ * @param studentName the student's full name
+ * @param createdAt   the instant the comment was made
+ * @param sequence    the comment's sequence number; larger numbers were added later
+ * @param text        the comment text
+ */
+public record RecentComment(long studentId, String studentName, Instant createdAt, long sequence, String text) {
+
+    /**
+     * Pairs a stored comment with its student.
+     *
+     * @param student the student the comment is about
+     * @param comment the comment
+     * @return the feed entry
+     */
+    public static RecentComment of(Student student, Comment comment) {
+        return new RecentComment(student.getId(), student.getFullName(), comment.getTimestamp(),
+                comment.getSequence(), comment.getText());
+    }
+}
@@ -3,6 +3,7 @@ package cs151.model;
 import java.util.*;
 
 public class Student {
+    private long id;
     private String fullName;
     private String academicStatus;
     private boolean employed;
@@ -24,7 +25,8 @@ public class Student {
      * @param programmingLanguages      list of programming languages known
      * @param databasesKnown            list of databases known
      * @param preferredProfessionalRole the student's preferred professional role
-     * @param comments                  list of comments
+     * @param comments                  comments not in the comment store yet, such as
+     *                                  the first comment of a new student
      * @param whitelist                 whether the student is whitelisted
      * @param blacklist                 whether the student is blacklisted
      */
@@ -43,6 +45,21 @@ public class Student {
         this.blacklist = blacklist;
     }
 
+    /**
+     * Copies this student, ID included, so the copy can be changed without
+     * affecting the original. The lists are copied; comments are immutable
+     * and shared.
+     *
+     * @return the copy
+     */
+    public Student copy() {
+        Student copy = new Student(fullName, academicStatus, employed, jobDetails,
+                new ArrayList<>(programmingLanguages), new ArrayList<>(databasesKnown), preferredProfessionalRole,
+                new ArrayList<>(comments), whitelist, blacklist);
+        copy.setId(id);
+        return copy;
+    }
+
     /**
      * Returns a string representation of the student, their full name.
      * 
@@ -53,6 +70,25 @@ public class Student {
         return this.getFullName();
     }
 
+    /**
+     * Gets the student's ID, which stays the same for the lifetime of the profile.
+     *
+     * @return the ID, or 0 if the student has not been stored yet
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the student's ID. IDs are assigned by the database when a student is
+     * first stored and should not be changed afterwards.
+     *
+     * @param id the ID
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Gets the student's full name
      * 
@@ -117,9 +153,12 @@ public class Student {
     }
 
     /**
-     * Gets the list of comments associated with this student.
+     * Gets the comments held by this profile itself rather than the comment
+     * store: those given to a new student, or those read from files written
+     * before comments had their own store. Storing the student moves them to
+     * the comment store and empties this list.
      * 
-     * @return list of comments
+     * @return list of comments not in the comment store yet
      */
     public List<Comment> getComments() {
         return comments;
@@ -143,16 +182,6 @@ public class Student {
         return blacklist;
     }
 
-    /**
-     * Adds a new comment with the date to this student's profile.
-     *
-     * @param text the comment text to add
-     */
-    public void addComment(String text) {
-        Comment comment = new Comment(text);
-        this.comments.add(comment);
-    }
-
     /**
      * Sets the student's full name.
      * 
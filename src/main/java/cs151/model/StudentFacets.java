@@ -0,0 +1,39 @@
+package cs151.model;
+
+import cs151.model.StudentReport.ValueCount;
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the running student counts: how many students there are, how
+ * many have each flag set and how many have each attribute value.
+ *
+ * @param total       the number of students
+ * @param flagCounts  the number of students with each flag set
+ * @param valueCounts for each attribute, the number of students with each
+ *                    value, most common value first
+ */
+public record StudentFacets(int total, Map<Flag, Integer> flagCounts, Map<Attribute, List<ValueCount>> valueCounts) {
+    /**
+     * Gets the number of students with a flag set.
+     *
+     * @param flag the flag
+     * @return the number of students with it set
+     */
+    public int count(Flag flag) {
+        return flagCounts.getOrDefault(flag, 0);
+    }
+
+    /**
+     * Gets the number of students without a flag set, such as the unemployed.
+     *
+     * @param flag the flag
+     * @return the number of students without it set
+     */
+    public int countWithout(Flag flag) {
+        return total - count(flag);
+    }
+}
@@ -0,0 +1,55 @@
+package cs151.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of everything a profile page shows about one student,
+ * taken in a single repository access. Comments are only counted; they are
+ * read a page at a time when they are shown.
+ *
+ * @param id                   the student's ID
+ * @param fullName             the full name
+ * @param academicStatus       the academic status
+ * @param employed             whether the student is employed
+ * @param jobDetails           the job details, or null if none
+ * @param programmingLanguages the programming languages known
+ * @param databasesKnown       the databases known
+ * @param preferredRole        the preferred professional role
+ * @param whitelisted          whether the student is whitelisted
+ * @param blacklisted          whether the student is blacklisted
+ * @param commentCount         the number of comments on the student
+ */
+public record StudentProfile(long id, String fullName, String academicStatus, boolean employed, String jobDetails,
+        List<String> programmingLanguages, List<String> databasesKnown, String preferredRole, boolean whitelisted,
+        boolean blacklisted, int commentCount) {
+    /**
+     * Snapshot of one comment.
+     *
+     * @param createdAt the date the comment was made, or null if unknown
+     * @param text      the comment text
+     */
+    public record CommentEntry(LocalDate createdAt, String text) {
+    }
+
+    /**
+     * Takes a snapshot of a student. The caller must keep the student from
+     * changing while the snapshot is taken.
+     *
+     * @param student      the student
+     * @param commentCount the number of comments stored for the student
+     * @return the student's profile
+     */
+    static StudentProfile of(Student student, int commentCount) {
+        return new StudentProfile(student.getId(), student.getFullName(), student.getAcademicStatus(),
+                student.isEmployed(), student.getJobDetails(), copy(student.getProgrammingLanguages()),
+                copy(student.getDatabasesKnown()), student.getPreferredProfessionalRole(), student.isWhitelisted(),
+                student.isBlacklisted(), commentCount);
+    }
+
+    private static <T> List<T> copy(List<T> values) {
+        return values == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
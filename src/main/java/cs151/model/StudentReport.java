@@ -0,0 +1,39 @@
+package cs151.model;
+
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Membership of one or more student lists, such as the whitelist, with how
+ * its members break down by attribute value.
+ *
+ * @param flags      the flags of which the members have at least one set, or
+ *                   an empty set for all students; must not be modified
+ * @param members    IDs of the members; must not be modified
+ * @param breakdowns for each reported attribute, in report order, the number
+ *                   of members with each value, most common value first
+ */
+public record StudentReport(Set<Flag> flags, BitSet members, Map<Attribute, List<ValueCount>> breakdowns) {
+    /**
+     * Number of members with one attribute value.
+     *
+     * @param value the attribute value
+     * @param count the number of members with it
+     */
+    public record ValueCount(String value, int count) {
+    }
+
+    /**
+     * Gets the number of members.
+     *
+     * @return the member count
+     */
+    public int count() {
+        return members.cardinality();
+    }
+}
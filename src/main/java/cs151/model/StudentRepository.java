@@ -1,132 +1,703 @@
 package cs151.model;
 
+import cs151.model.index.StudentIndexes;
+import cs151.model.index.StudentIndexes.Field;
 import cs151.util.Database;
+import cs151.util.ValidationUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
 
+/**
+ * In-memory view of the stored students with ID, name and attribute indexes.
+ * All methods are synchronized, so the repository can be read from background
+ * threads while the JavaFX thread makes changes. Students are copied on the
+ * way in and out, so the stored instances only change under this lock.
+ */
 public class StudentRepository {
-    private List<Student> allStudents;
+    /**
+     * Position of a student in name order: by normalized name, then by ID, so
+     * the order is total and stays stable between pages.
+     *
+     * @param nameKey the normalized full name
+     * @param id      the student's ID
+     */
+    private record OrderKey(String nameKey, long id) implements Comparable<OrderKey> {
+        @Override
+        public int compareTo(OrderKey other) {
+            int byName = nameKey.compareTo(other.nameKey);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Where a page of students continues, with the total counted for the
+     * first page, so later pages need not count the matches again.
+     *
+     * @param after the order key of the last student on the previous page
+     * @param total the number of students across all pages
+     */
+    private record PageCursor(OrderKey after, int total) {
+        /**
+         * Encodes the cursor as an opaque, URL-safe string.
+         */
+        private String encode() {
+            String raw = after.id() + ":" + total + ":" + after.nameKey();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Decodes a cursor produced by encode.
+         */
+        private static PageCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int first = raw.indexOf(':');
+                int second = raw.indexOf(':', first + 1);
+                OrderKey after = new OrderKey(raw.substring(second + 1), Long.parseLong(raw.substring(0, first)));
+                return new PageCursor(after, Integer.parseInt(raw.substring(first + 1, second)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+
+    // How long a snapshot is trusted before the student files are checked for outside changes
+    private static final long REVALIDATE_INTERVAL_MS = 2000;
+
+    // Students indexed by ID; slots of unused or deleted IDs are null
+    private List<Student> studentsById;
+    // Normalized full name each stored student is indexed under, by ID
+    private List<String> nameKeysById;
+    // All students in name order; also finds students by normalized name, and
+    // keeps every student even if a file was edited to give two the same name
+    private NavigableSet<OrderKey> nameOrder;
+    // Attribute and flag bitmaps over the stored students' IDs
+    private StudentIndexes indexes;
+    // State of the student files the loaded students correspond to
+    private Database.StudentsFileState loadedState;
+    private long lastValidatedAt;
+    // Incremented whenever the stored students change
+    private long version;
+    // Version at which each field group last changed, by Field ordinal
+    private final long[] fieldVersions = new long[Field.values().length];
+    private long cacheHits;
+    private long cacheMisses;
+    // Number of comments on the stored students, kept up to date so the feed never counts them
+    private int commentTotal;
+    // Whether the comment words are indexed; comments are read on the first comment search after a reload
+    private boolean commentsIndexed;
 
     /**
      * Creates a new StudentRepository and loads initial data from the database.
      */
     public StudentRepository() {
-        this.allStudents = new ArrayList<>();
+        this.studentsById = new ArrayList<>();
+        this.nameKeysById = new ArrayList<>();
+        this.nameOrder = new TreeSet<>();
+        this.indexes = new StudentIndexes();
         refreshFromDatabase();
     }
 
     /**
-     * Refreshes the internal student list from the database
+     * Refreshes the internal student list from the database, but only if the
+     * student files changed since they were last loaded. Changes made through
+     * this repository are already in memory, so the files are checked for
+     * outside changes at most once per revalidation interval.
      */
     private void refreshFromDatabase() {
-        this.allStudents = Database.loadStudents();
+        long now = System.currentTimeMillis();
+        if (loadedState != null && now - lastValidatedAt < REVALIDATE_INTERVAL_MS) {
+            cacheHits++;
+            return;
+        }
+        lastValidatedAt = now;
+        Database.StudentsFileState state = Database.studentsFileState();
+        if (state != null && state.equals(loadedState)) {
+            cacheHits++;
+            return;
+        }
+        cacheMisses++;
+        this.loadedState = state;
+        this.studentsById = new ArrayList<>();
+        this.nameKeysById = new ArrayList<>();
+        this.nameOrder = new TreeSet<>();
+        this.indexes = new StudentIndexes();
+        for (Student student : Database.loadStudents()) {
+            index(student);
+        }
+        // Comments are counted from the comment store's line index; their words are indexed on demand
+        this.commentTotal = 0;
+        this.commentsIndexed = false;
+        try {
+            for (int id = 1; id < studentsById.size(); id++) {
+                if (studentsById.get(id) != null) {
+                    commentTotal += Database.commentCount(id);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error counting comments: " + e.getMessage());
+        }
+        touch(EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Indexes the words and dates of the stored students' comments, unless
+     * they are already indexed. Comment texts are read once, then left in the
+     * comment store; comments added afterwards are indexed as they are added.
+     */
+    private void indexComments() {
+        if (commentsIndexed) {
+            return;
+        }
+        commentsIndexed = true;
+        try {
+            Database.forEachComment((id, comment) -> {
+                if (isStored(id)) {
+                    indexes.addComment(id.intValue(), comment);
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Error indexing comments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a student to the ID, name and attribute indexes, replacing whatever was stored under its ID.
+     *
+     * @param student the student to index
+     */
+    private void index(Student student) {
+        int slot = (int) student.getId();
+        Set<Field> changed = indexes.changedFields(student);
+        remove(slot);
+        while (studentsById.size() <= slot) {
+            studentsById.add(null);
+            nameKeysById.add(null);
+        }
+        studentsById.set(slot, student);
+        nameKeysById.set(slot, nameKey(student.getFullName()));
+        nameOrder.add(orderKey(slot));
+        indexes.add(student);
+        touch(changed);
+    }
+
+    /**
+     * Removes the student stored under an ID from the ID, name and attribute indexes.
+     *
+     * @param slot the student's ID
+     */
+    private void unindex(int slot) {
+        if (remove(slot)) {
+            indexes.removeComments(slot);
+            // Every group, STUDENTS included, loses the student's data
+            touch(EnumSet.allOf(Field.class));
+        }
+    }
+
+    /**
+     * Removes the student stored under an ID from every index, without
+     * recording a change.
+     *
+     * @param slot the student's ID
+     * @return whether a student was stored under the ID
+     */
+    private boolean remove(int slot) {
+        if (slot < 0 || slot >= studentsById.size() || studentsById.get(slot) == null) {
+            return false;
+        }
+        nameOrder.remove(orderKey(slot));
+        studentsById.set(slot, null);
+        nameKeysById.set(slot, null);
+        indexes.remove(slot);
+        return true;
+    }
+
+    /**
+     * Records a change to the stored students that affected the given field
+     * groups. Adding or removing a student must include
+     * {@link Field#STUDENTS}, since it changes which students any result can
+     * contain.
+     *
+     * @param fields the field groups that changed
+     */
+    private void touch(Set<Field> fields) {
+        version++;
+        for (Field field : fields) {
+            fieldVersions[field.ordinal()] = version;
+        }
+    }
+
+    /**
+     * Gets the name-order position of the student indexed under an ID.
+     *
+     * @param slot the student's ID
+     * @return the student's order key
+     */
+    private OrderKey orderKey(int slot) {
+        return new OrderKey(nameKeysById.get(slot), slot);
+    }
+
+    /**
+     * Gets the key a full name is indexed under: the normalized name, or an
+     * empty key for a missing name.
+     *
+     * @param fullName the full name
+     * @return the name key
+     */
+    private static String nameKey(String fullName) {
+        String nameKey = ValidationUtils.normalizeName(fullName);
+        return nameKey != null ? nameKey : "";
+    }
+
+    /**
+     * Gets the lowest ID stored under a name key, other than one ID.
+     *
+     * @param nameKey  the name key
+     * @param exceptId an ID to skip, or 0 to skip none
+     * @return the ID, or 0 if no other student has that name key
+     */
+    private long idByName(String nameKey, long exceptId) {
+        // IDs start at 1, so the search starts before every student with the name
+        for (OrderKey key : nameOrder.tailSet(new OrderKey(nameKey, 0), false)) {
+            if (!key.nameKey().equals(nameKey)) {
+                break;
+            }
+            if (key.id() != exceptId) {
+                return key.id();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Records that the student files now hold exactly what is in memory,
+     * after this repository wrote its own change to them.
+     */
+    private void markWritten() {
+        this.loadedState = Database.studentsFileState();
+        this.lastValidatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets how many reads were served from the loaded snapshot.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Gets how many reads had to load the student files again.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Gets a number that changes whenever the stored students change, so
+     * results computed from them can be checked for staleness.
+     *
+     * @return the current version
+     */
+    public synchronized long getVersion() {
+        refreshFromDatabase();
+        return version;
+    }
+
+    /**
+     * Gets the latest version at which any of the given field groups changed.
+     * A result computed from only those fields at a version at least this
+     * recent is still current.
+     *
+     * @param fields the field groups the result depends on
+     * @return the version of their latest change
+     */
+    public synchronized long getChangedAt(Set<Field> fields) {
+        refreshFromDatabase();
+        long changedAt = 0;
+        for (Field field : fields) {
+            changedAt = Math.max(changedAt, fieldVersions[field.ordinal()]);
+        }
+        return changedAt;
+    }
+
+    /**
+     * Gets the attribute and flag indexes over the stored students. The
+     * returned indexes change along with the students, so callers on other
+     * threads must hold this repository's lock while reading them.
+     *
+     * @return the current student indexes
+     */
+    public synchronized StudentIndexes getIndexes() {
+        refreshFromDatabase();
+        return indexes;
+    }
+
+    /**
+     * Gets the indexes over the stored students, as {@link #getIndexes()}
+     * does, with the comments indexed too if the fields include them. The
+     * comments are read the first time they are needed after a reload.
+     *
+     * @param fields the field groups the caller will look up
+     * @return the current student indexes
+     */
+    public synchronized StudentIndexes getIndexes(Set<Field> fields) {
+        refreshFromDatabase();
+        if (fields.contains(Field.COMMENTS)) {
+            indexComments();
+        }
+        return indexes;
     }
 
     /**
-     * Retrieves all students from the database, sorted alphabetically by name.
+     * Retrieves copies of the students with the given IDs, sorted alphabetically by name.
      *
-     * @return a new list containing all students sorted by name
+     * @param ids the IDs of the students to retrieve
+     * @return a new list containing the matching students sorted by name
      */
-    public List<Student> getAllStudents() {
+    public synchronized List<Student> findAllById(BitSet ids) {
         refreshFromDatabase();
-        List<Student> sortedStudents = new ArrayList<>(this.allStudents);
-        sortedStudents.sort((s1, s2) -> {
-            String name1 = s1.getFullName() != null ? s1.getFullName() : "";
-            String name2 = s2.getFullName() != null ? s2.getFullName() : "";
-            return name1.compareToIgnoreCase(name2);
-        });
-        return sortedStudents;
+        List<Student> students = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0 && id < studentsById.size(); id = ids.nextSetBit(id + 1)) {
+            Student student = studentsById.get(id);
+            if (student != null) {
+                students.add(student.copy());
+            }
+        }
+        students.sort(Comparator.comparing(student -> orderKey((int) student.getId())));
+        return students;
     }
 
     /**
-     * Adds a new student to the database.
+     * Retrieves copies of one page of students in name order, then ID order for equal
+     * names. Only the students on the page are visited, apart from skipped
+     * non-matching ones when a filter is given. The matches are counted for
+     * the first page only; later pages carry that total in their cursor.
+     *
+     * @param ids    the IDs of the students to page through, or null for all students
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit  the maximum number of students on the page
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public synchronized Page<Student> findPage(BitSet ids, String cursor, int limit) {
+        refreshFromDatabase();
+        PageCursor previous = cursor == null ? null : PageCursor.decode(cursor);
+        NavigableSet<OrderKey> remaining = previous == null ? nameOrder : nameOrder.tailSet(previous.after(), false);
+        List<Student> items = new ArrayList<>(Math.min(limit, nameOrder.size()));
+        OrderKey last = null;
+        boolean more = false;
+        for (OrderKey key : remaining) {
+            if (ids != null && !ids.get((int) key.id())) {
+                continue;
+            }
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(studentsById.get((int) key.id()).copy());
+            last = key;
+        }
+        int total = previous != null ? previous.total() : ids == null ? nameOrder.size() : countStored(ids);
+        return new Page<>(items, more ? new PageCursor(last, total).encode() : null, total);
+    }
+
+    private int countStored(BitSet ids) {
+        int count = 0;
+        for (int id = ids.nextSetBit(0); id >= 0 && id < studentsById.size(); id = ids.nextSetBit(id + 1)) {
+            if (studentsById.get(id) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a new student to the database, unless another student already has
+     * the same name. The student is given its ID here, and its comments are
+     * moved to the comment store.
      *
      * @param student the student to add
+     * @return true if the student was added, false if the name is taken
      * @throws IllegalArgumentException if student is null
      * @throws RuntimeException         if the database operation fails
      */
-    public void addStudent(Student student) {
+    public synchronized boolean addStudent(Student student) {
         if (student == null) {
             throw new IllegalArgumentException("Student cannot be null");
         }
+        refreshFromDatabase();
+        if (idByName(nameKey(student.getFullName()), 0) != 0) {
+            return false;
+        }
         try {
+            List<Comment> comments = new ArrayList<>(student.getComments());
             Database.addStudent(student);
-            refreshFromDatabase();
+            index(student.copy());
+            if (commentsIndexed) {
+                for (Comment comment : comments) {
+                    indexes.addComment((int) student.getId(), comment);
+                }
+            }
+            commentTotal += comments.size();
+            markWritten();
         } catch (Exception e) {
             throw new RuntimeException("Failed to add student: " + e.getMessage(), e);
         }
+        return true;
+    }
+
+    /**
+     * Adds a comment to a student. The comment is appended to the comment
+     * store on its own, without reading or rewriting the student, and only
+     * the new comment is indexed.
+     *
+     * @param studentId the ID of the student to comment on
+     * @param text      the comment text
+     * @return the new comment, with its sequence number
+     * @throws IllegalArgumentException if no student has that ID
+     * @throws RuntimeException         if the save operation fails
+     */
+    public synchronized Comment addComment(long studentId, String text) {
+        refreshFromDatabase();
+        if (!isStored(studentId)) {
+            throw new IllegalArgumentException("Student with ID " + studentId + " not found");
+        }
+        Comment comment;
+        try {
+            comment = Database.appendComment(studentId, new Comment(text));
+            if (commentsIndexed) {
+                indexes.addComment((int) studentId, comment);
+            }
+            commentTotal++;
+            touch(EnumSet.of(Field.COMMENTS));
+            markWritten();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to add comment: " + e.getMessage(), e);
+        }
+        return comment;
     }
 
     /**
-     * Deletes a student from the database by their full name.
+     * Deletes a student from the database by their ID.
      *
-     * @param fullName the full name of the student to delete
-     * @throws IllegalArgumentException if fullName is null or empty
+     * @param id the ID of the student to delete
+     * @throws IllegalArgumentException if no student has that ID
      * @throws RuntimeException         if the database operation fails
      */
-    public void deleteStudent(String fullName) {
-        if (fullName == null || fullName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Student name cannot be null or empty");
+    public synchronized void deleteStudent(long id) {
+        refreshFromDatabase();
+        if (!isStored(id)) {
+            throw new IllegalArgumentException("Student with ID " + id + " not found");
         }
         try {
-            Database.deleteStudentByName(fullName);
-            refreshFromDatabase();
+            int comments = Database.commentCount(id);
+            Database.deleteStudent(id);
+            unindex((int) id);
+            commentTotal -= comments;
+            markWritten();
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete student: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Finds a student by their ID. The result is a copy; changes to it are
+     * stored with {@link #updateStudent}.
+     *
+     * @param id the ID to look up
+     * @return a copy of the matching student, or null if not found
+     */
+    public synchronized Student findById(long id) {
+        refreshFromDatabase();
+        return isStored(id) ? studentsById.get((int) id).copy() : null;
+    }
+
+    /**
+     * Checks whether a student is stored under an ID, without copying it.
+     *
+     * @param id the ID to look up
+     * @return true if a student has that ID
+     */
+    public synchronized boolean contains(long id) {
+        refreshFromDatabase();
+        return isStored(id);
+    }
+
+    /**
+     * Takes a snapshot of a student's profile, under one lock acquisition, so
+     * it is consistent even if the student changes later. Comments are not
+     * read; see {@link #findCommentPage}.
+     *
+     * @param id the student's ID
+     * @return the student's profile, or null if not found
+     */
+    public synchronized StudentProfile findProfileById(long id) {
+        refreshFromDatabase();
+        if (!isStored(id)) {
+            return null;
+        }
+        try {
+            return StudentProfile.of(studentsById.get((int) id), Database.commentCount(id));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to count comments: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves one page of a student's comments, newest first. Only the
+     * comments on the page are read from the comment store. Comments are only
+     * ever appended, so the cursor is the position of the oldest comment
+     * already returned, and pages stay stable while new comments arrive.
+     *
+     * @param studentId the student's ID
+     * @param cursor    the nextCursor of the previous page, or null for the first page
+     * @param limit     the maximum number of comments on the page
+     * @return the page, which is empty if no student has that ID
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @throws RuntimeException         if the comment store cannot be read
+     */
+    public synchronized Page<StudentProfile.CommentEntry> findCommentPage(long studentId, String cursor, int limit) {
+        refreshFromDatabase();
+        if (!isStored(studentId)) {
+            return new Page<>(List.of(), null, 0);
+        }
+        try {
+            int total = Database.commentCount(studentId);
+            int end;
+            try {
+                end = cursor == null ? total : Math.min(Integer.parseInt(cursor), total);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            int start = Math.max(0, end - limit);
+            List<Comment> comments = Database.readComments(studentId, start, end);
+            List<StudentProfile.CommentEntry> items = new ArrayList<>(comments.size());
+            for (Comment comment : comments.reversed()) {
+                items.add(new StudentProfile.CommentEntry(comment.getCreatedAt(), comment.getText()));
+            }
+            return new Page<>(items, start > 0 ? Integer.toString(start) : null, total);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read comments: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves one page of the newest comments across all students, newest
+     * first. Comments are stored in the order they were added, so a page
+     * reads only its own comments, plus any left behind by deleted students,
+     * however many comments there are. The cursor is the store position the
+     * previous page stopped at.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit  the maximum number of comments on the page
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @throws RuntimeException         if the comment store cannot be read
+     */
+    public synchronized Page<RecentComment> findRecentComments(String cursor, int limit) {
+        refreshFromDatabase();
+        try {
+            int before;
+            try {
+                before = cursor == null ? Database.commentLineCount() : Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            List<RecentComment> items = new ArrayList<>(Math.min(limit, commentTotal));
+            int next = Database.readCommentsBefore(before, limit, this::isStored,
+                    (id, comment) -> items.add(RecentComment.of(studentsById.get(id.intValue()), comment)));
+            return new Page<>(items, next > 0 ? Integer.toString(next) : null, commentTotal);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read comments: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks whether a student is stored under an ID.
+     *
+     * @param id the ID
+     * @return true if a student is stored under it
+     */
+    private boolean isStored(long id) {
+        return id > 0 && id < studentsById.size() && studentsById.get((int) id) != null;
+    }
+
     /**
      * Finds a student by their full name.
      *
      * @param fullName the full name to search for
-     * @return the matching student, or null if not found
+     * @return a copy of the matching student, or null if not found
      */
-    public Student findByName(String fullName) {
+    public synchronized Student findByName(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
             return null;
         }
         refreshFromDatabase();
-        return allStudents.stream()
-                .filter(student -> student.getFullName() != null &&
-                        student.getFullName().equalsIgnoreCase(fullName.trim()))
-                .findFirst()
-                .orElse(null);
+        long id = idByName(nameKey(fullName), 0);
+        return id != 0 ? studentsById.get((int) id).copy() : null;
     }
 
     /**
-     * Updates an existing student's information in the database.
-     * 
-     * @param originalName   the current full name of the student to update
-     * @param updatedStudent the updated student information
-     * @throws IllegalArgumentException if name or updated student are null/empty or not found
-     * @throws RuntimeException         if the save operation fails
+     * Checks whether a student other than the given one has a full name.
+     * Names are compared normalized, as {@link #addStudent} and
+     * {@link #updateStudent} compare them.
+     *
+     * @param fullName the full name to look up
+     * @param exceptId the ID of a student that may keep the name, or 0 for none
+     * @return true if another student has that name, otherwise false
      */
-    public void updateStudent(String originalName, Student updatedStudent) {
-        if (originalName == null || originalName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Original name cannot be null or empty");
+    public synchronized boolean isNameTaken(String fullName, long exceptId) {
+        if (fullName == null || fullName.trim().isEmpty()) {
+            return false;
         }
+        refreshFromDatabase();
+        return idByName(nameKey(fullName), exceptId) != 0;
+    }
+
+    /**
+     * Updates an existing student's information in the database, unless it
+     * was renamed to another student's name. The student is matched by ID,
+     * so it may have been renamed. A copy is stored, and the stored student
+     * is left unchanged if the database write fails.
+     *
+     * @param updatedStudent the updated student information, typically a
+     *                       changed copy from {@link #findById}
+     * @return true if the student was updated, false if the name is taken
+     * @throws IllegalArgumentException if updated student is null or not found
+     * @throws RuntimeException         if the save operation fails
+     */
+    public synchronized boolean updateStudent(Student updatedStudent) {
         if (updatedStudent == null) {
             throw new IllegalArgumentException("Updated student cannot be null");
         }
+        refreshFromDatabase();
+        if (!isStored(updatedStudent.getId())) {
+            throw new IllegalArgumentException("Student with ID " + updatedStudent.getId() + " not found");
+        }
+        if (idByName(nameKey(updatedStudent.getFullName()), updatedStudent.getId()) != 0) {
+            return false;
+        }
 
         try {
-            refreshFromDatabase();
-            boolean found = false;
-            for (int i = 0; i < allStudents.size(); i++) {
-                if (allStudents.get(i).getFullName().equalsIgnoreCase(originalName.trim())) {
-                    allStudents.set(i, updatedStudent);
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                throw new IllegalArgumentException("Student with name '" + originalName + "' not found");
-            }
-            Database.updateStudents(allStudents);
-            refreshFromDatabase();
+            Database.updateStudent(updatedStudent);
+            index(updatedStudent.copy());
+            markWritten();
         } catch (Exception e) {
             throw new RuntimeException("Failed to update student: " + e.getMessage(), e);
         }
+        return true;
     }
-}
\ No newline at end of file
+}
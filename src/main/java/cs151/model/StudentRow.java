@@ -0,0 +1,30 @@
+package cs151.model;
+
+/**
+ * Lightweight, immutable projection of a student for result lists. It carries
+ * what a result table shows plus the ID that follow-up actions use, so rows
+ * can be displayed without going back to the repository.
+ *
+ * @param id             the student's ID
+ * @param fullName       the student's full name
+ * @param academicStatus the student's academic status
+ * @param employed       whether the student is employed
+ * @param whitelisted    whether the student is whitelisted
+ * @param blacklisted    whether the student is blacklisted
+ * @param languageCount  how many programming languages the student knows
+ */
+public record StudentRow(long id, String fullName, String academicStatus, boolean employed, boolean whitelisted,
+        boolean blacklisted, int languageCount) {
+
+    /**
+     * Projects a student into a row.
+     *
+     * @param student the student
+     * @return the row
+     */
+    public static StudentRow of(Student student) {
+        return new StudentRow(student.getId(), student.getFullName(), student.getAcademicStatus(),
+                student.isEmployed(), student.isWhitelisted(), student.isBlacklisted(),
+                student.getProgrammingLanguages() != null ? student.getProgrammingLanguages().size() : 0);
+    }
+}
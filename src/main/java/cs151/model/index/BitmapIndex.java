@@ -0,0 +1,253 @@
+package cs151.model.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dictionary-encoded bitmap index over one student attribute. Every distinct
+ * value (compared case-insensitively) gets a small integer code, and each code
+ * maps to a bitmap of the IDs of the students that have the value and to a
+ * running count of them, so value counts are read without counting bits.
+ */
+public class BitmapIndex {
+    // Case-folded value -> code
+    private final Map<String, Integer> codes = new HashMap<>();
+    // Code -> value as first seen
+    private final List<String> values = new ArrayList<>();
+    // Code -> IDs of students with the value
+    private final List<BitSet> bitmaps = new ArrayList<>();
+    // Code -> number of students with the value, kept equal to the bitmap's cardinality
+    private int[] sizes = new int[8];
+
+    /**
+     * Records that a student has the given values.
+     *
+     * @param id     the student's ID
+     * @param values the student's values for this attribute; nulls are ignored
+     */
+    void add(int id, Collection<String> values) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            if (value != null) {
+                int code = encode(value);
+                BitSet bitmap = bitmaps.get(code);
+                if (!bitmap.get(id)) {
+                    bitmap.set(id);
+                    sizes[code]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every value recorded for a student.
+     *
+     * @param id the student's ID
+     */
+    void remove(int id) {
+        for (int code = 0; code < bitmaps.size(); code++) {
+            BitSet bitmap = bitmaps.get(code);
+            if (bitmap.get(id)) {
+                bitmap.clear(id);
+                sizes[code]--;
+            }
+        }
+    }
+
+    /**
+     * Checks whether exactly the given values are recorded for a student,
+     * compared case-insensitively and ignoring order and duplicates.
+     *
+     * @param id     the student's ID
+     * @param values the values to compare with; nulls are ignored
+     * @return true if the student has those values and no others
+     */
+    boolean holds(int id, Collection<String> values) {
+        Set<Integer> expected = new HashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null) {
+                    Integer code = codes.get(fold(value));
+                    if (code == null) {
+                        return false;
+                    }
+                    expected.add(code);
+                }
+            }
+        }
+        for (int code = 0; code < bitmaps.size(); code++) {
+            if (bitmaps.get(code).get(id) != expected.contains(code)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the IDs of the students with a value, compared case-insensitively.
+     *
+     * @param value the value to look up
+     * @return a new bitmap of matching student IDs, empty if the value is unknown
+     */
+    public BitSet lookup(String value) {
+        Integer code = value == null ? null : codes.get(fold(value));
+        return code == null ? new BitSet() : (BitSet) bitmaps.get(code).clone();
+    }
+
+    /**
+     * Gets the IDs of the students with any value that contains the given
+     * case-folded text. Only the dictionary is scanned, not the students.
+     *
+     * @param foldedText lower-case text to look for
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet lookupContaining(String foldedText) {
+        BitSet result = new BitSet();
+        for (Map.Entry<String, Integer> entry : codes.entrySet()) {
+            if (entry.getKey().contains(foldedText)) {
+                result.or(bitmaps.get(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets, for every value that contains the given case-folded text, the
+     * IDs of the students with that value. A student's number of such values
+     * is then the number of these bitmaps containing its ID, which can be
+     * counted for many students without looking at a string.
+     *
+     * @param foldedText lower-case text to look for
+     * @return a new bitmap per matching value
+     */
+    public List<BitSet> lookupEachContaining(String foldedText) {
+        List<BitSet> result = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : codes.entrySet()) {
+            BitSet bitmap = bitmaps.get(entry.getValue());
+            if (entry.getKey().contains(foldedText) && !bitmap.isEmpty()) {
+                result.add((BitSet) bitmap.clone());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the IDs of the students with any value matching a case-folded
+     * wildcard pattern. Only the dictionary is scanned, not the students.
+     *
+     * @param foldedPattern lower-case pattern where '*' matches any run of characters
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet lookupMatching(String foldedPattern) {
+        BitSet result = new BitSet();
+        Glob glob = Glob.compile(foldedPattern);
+        for (Map.Entry<String, Integer> entry : codes.entrySet()) {
+            if (glob.matches(entry.getKey())) {
+                result.or(bitmaps.get(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates how many students have a value matching a case-folded
+     * wildcard pattern, from the running counts. A student with several
+     * matching values is counted once per value, so this is an upper bound.
+     * Only the dictionary is scanned.
+     *
+     * @param foldedPattern lower-case pattern where '*' matches any run of characters
+     * @return the estimated number of matching students
+     */
+    public int estimate(String foldedPattern) {
+        if (foldedPattern.indexOf('*') < 0) {
+            Integer code = codes.get(fold(foldedPattern));
+            return code == null ? 0 : sizes[code];
+        }
+        Glob glob = Glob.compile(foldedPattern);
+        int estimate = 0;
+        for (Map.Entry<String, Integer> entry : codes.entrySet()) {
+            if (glob.matches(entry.getKey())) {
+                estimate += sizes[entry.getValue()];
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Gets the number of students with each value, from the running counts.
+     *
+     * @return the number of students with each value, for values with at
+     *         least one, keyed by the value as first seen
+     */
+    public Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int code = 0; code < values.size(); code++) {
+            if (sizes[code] > 0) {
+                counts.put(values.get(code), sizes[code]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts, for every value, the students among the given IDs that have it.
+     * Each count is one bitmap intersection, so no student is visited.
+     *
+     * @param within the IDs of the students to count
+     * @return the number of those students with each value, for values with
+     *         at least one, keyed by the value as first seen
+     */
+    public Map<String, Integer> counts(BitSet within) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int code = 0; code < values.size(); code++) {
+            BitSet members = (BitSet) bitmaps.get(code).clone();
+            members.and(within);
+            int count = members.cardinality();
+            if (count > 0) {
+                counts.put(values.get(code), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Gets every value that currently has at least one student.
+     *
+     * @return the values, as first seen
+     */
+    public List<String> values() {
+        List<String> present = new ArrayList<>();
+        for (int code = 0; code < values.size(); code++) {
+            if (!bitmaps.get(code).isEmpty()) {
+                present.add(values.get(code));
+            }
+        }
+        return present;
+    }
+
+    private int encode(String value) {
+        return codes.computeIfAbsent(fold(value), key -> {
+            values.add(value.trim());
+            bitmaps.add(new BitSet());
+            if (values.size() > sizes.length) {
+                sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            }
+            return values.size() - 1;
+        });
+    }
+
+    static String fold(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,218 @@
+package cs151.model.index;
+
+import cs151.model.Comment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Indexes over the students' comments: an inverted index from each word of the
+ * comment texts to the students with a comment using it, and a date index from
+ * each comment date to the students commented on that day. Comments are never
+ * edited or removed one by one, so a new comment is indexed on its own and a
+ * student's comments are only unindexed all together. The comment texts
+ * themselves are not kept; they stay in the comment store.
+ */
+public class CommentIndex {
+    // Case-folded word -> IDs of students with a comment containing it
+    private final NavigableMap<String, IdSet> words = new TreeMap<>();
+    // Comment date -> IDs of students with a comment from that day
+    private final NavigableMap<LocalDate, IdSet> dates = new TreeMap<>();
+    // Words and dates indexed for each student, by ID, so they can be unindexed
+    private final List<Set<String>> wordsById = new ArrayList<>();
+    private final List<Set<LocalDate>> datesById = new ArrayList<>();
+
+    /**
+     * Indexes one more comment of a student.
+     *
+     * @param id      the student's ID
+     * @param comment the comment
+     */
+    void add(int id, Comment comment) {
+        while (wordsById.size() <= id) {
+            wordsById.add(null);
+            datesById.add(null);
+        }
+        if (wordsById.get(id) == null) {
+            wordsById.set(id, new HashSet<>());
+            datesById.set(id, new HashSet<>());
+        }
+        for (String word : words(comment.getText())) {
+            if (wordsById.get(id).add(word)) {
+                words.computeIfAbsent(word, key -> new IdSet()).add(id);
+            }
+        }
+        if (comment.getCreatedAt() != null && datesById.get(id).add(comment.getCreatedAt())) {
+            dates.computeIfAbsent(comment.getCreatedAt(), key -> new IdSet()).add(id);
+        }
+    }
+
+    /**
+     * Removes every comment indexed for a student.
+     *
+     * @param id the student's ID
+     */
+    void remove(int id) {
+        if (id >= wordsById.size() || wordsById.get(id) == null) {
+            return;
+        }
+        for (String word : wordsById.get(id)) {
+            removeFrom(words, word, id);
+        }
+        for (LocalDate date : datesById.get(id)) {
+            removeFrom(dates, date, id);
+        }
+        wordsById.set(id, null);
+        datesById.set(id, null);
+    }
+
+    /**
+     * Gets the IDs of the students with a comment containing a word that
+     * matches a pattern.
+     *
+     * @param foldedPattern lower-case word, where '*' matches any run of characters
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withWord(String foldedPattern) {
+        BitSet matches = new BitSet();
+        int wildcard = foldedPattern.indexOf('*');
+        if (wildcard < 0) {
+            IdSet ids = words.get(foldedPattern);
+            if (ids != null) {
+                ids.orInto(matches);
+            }
+            return matches;
+        }
+        // Only words sharing the literal prefix can match, and they are adjacent in the sorted map
+        String prefix = foldedPattern.substring(0, wildcard);
+        Map<String, IdSet> candidates = prefix.isEmpty()
+                ? words
+                : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Glob glob = Glob.compile(foldedPattern);
+        for (Map.Entry<String, IdSet> entry : candidates.entrySet()) {
+            if (glob.matches(entry.getKey())) {
+                entry.getValue().orInto(matches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Estimates how many students have a comment word matching a pattern,
+     * without matching the words: an exact word's count, or for a pattern,
+     * the sum of the counts of the words sharing its literal prefix. A
+     * student with several such words is counted once per word.
+     *
+     * @param foldedPattern lower-case word, where '*' matches any run of characters
+     * @param limit         the count to stop adding at
+     * @return the estimated number of matching students, at most limit
+     */
+    public int estimateWord(String foldedPattern, int limit) {
+        int wildcard = foldedPattern.indexOf('*');
+        if (wildcard < 0) {
+            IdSet ids = words.get(foldedPattern);
+            return ids == null ? 0 : Math.min(limit, ids.cardinality());
+        }
+        String prefix = foldedPattern.substring(0, wildcard);
+        Map<String, IdSet> candidates = prefix.isEmpty()
+                ? words
+                : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        return sumCardinalities(candidates.values(), limit);
+    }
+
+    /**
+     * Estimates how many students have a comment dated within a range, as the
+     * sum of the per-day counts. A student commented on several days is
+     * counted once per day.
+     *
+     * @param from  the first date, inclusive, or null for no lower bound
+     * @param to    the last date, inclusive, or null for no upper bound
+     * @param limit the count to stop adding at
+     * @return the estimated number of matching students, at most limit
+     */
+    public int estimateDateBetween(LocalDate from, LocalDate to, int limit) {
+        return sumCardinalities(dateRange(from, to).values(), limit);
+    }
+
+    /**
+     * Gets the IDs of the students with a comment dated within a range.
+     *
+     * @param from the first date, inclusive, or null for no lower bound
+     * @param to   the last date, inclusive, or null for no upper bound
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withDateBetween(LocalDate from, LocalDate to) {
+        BitSet matches = new BitSet();
+        for (IdSet ids : dateRange(from, to).values()) {
+            ids.orInto(matches);
+        }
+        return matches;
+    }
+
+    private NavigableMap<LocalDate, IdSet> dateRange(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, IdSet> range = dates;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return range;
+    }
+
+    private static int sumCardinalities(Collection<IdSet> sets, int limit) {
+        int sum = 0;
+        for (IdSet ids : sets) {
+            sum += ids.cardinality();
+            if (sum >= limit) {
+                return limit;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Splits a text into its case-folded words: runs of letters and digits.
+     *
+     * @param text the text
+     * @return the distinct words, in order of first appearance
+     */
+    static Set<String> words(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        if (text == null) {
+            return result;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private static <K> void removeFrom(Map<K, IdSet> postings, K key, int id) {
+        IdSet ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+}
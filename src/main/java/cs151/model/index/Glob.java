@@ -0,0 +1,95 @@
+package cs151.model.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Case-sensitive wildcard patterns where '*' matches any run of characters and
+ * every other character matches itself. Patterns are anchored at both ends.
+ * A pattern is split into its literal runs once, when compiled, so matching a
+ * text allocates nothing: literals are compared in place with regionMatches
+ * and indexOf.
+ */
+final class Glob {
+    // Literal runs between the wildcards, in order
+    private final String[] literals;
+    // Whether the first literal must start the text and the last must end it
+    private final boolean anchoredStart;
+    private final boolean anchoredEnd;
+    // The pattern itself if it has no wildcard, so matching is plain equality
+    private final String exact;
+
+    private Glob(String pattern) {
+        this.literals = literals(pattern).toArray(new String[0]);
+        this.anchoredStart = !pattern.startsWith("*");
+        this.anchoredEnd = !pattern.endsWith("*");
+        this.exact = pattern.indexOf('*') < 0 ? pattern : null;
+    }
+
+    /**
+     * Compiles a pattern for repeated matching.
+     *
+     * @param pattern the pattern
+     * @return the compiled pattern
+     */
+    static Glob compile(String pattern) {
+        return new Glob(pattern);
+    }
+
+    /**
+     * Checks whether a text matches this pattern, without allocating.
+     *
+     * @param text the text to check
+     * @return true if the whole text matches the pattern
+     */
+    boolean matches(String text) {
+        if (text == null) {
+            return false;
+        }
+        if (exact != null) {
+            return exact.equals(text);
+        }
+        int from = 0;
+        int to = text.length();
+        int first = 0;
+        int last = literals.length - 1;
+        if (anchoredStart && first <= last) {
+            String literal = literals[first++];
+            if (!text.startsWith(literal)) {
+                return false;
+            }
+            from = literal.length();
+        }
+        if (anchoredEnd && first <= last) {
+            String literal = literals[last--];
+            to -= literal.length();
+            if (to < from || !text.regionMatches(to, literal, 0, literal.length())) {
+                return false;
+            }
+        }
+        for (int i = first; i <= last; i++) {
+            int at = text.indexOf(literals[i], from);
+            if (at < 0 || at + literals[i].length() > to) {
+                return false;
+            }
+            from = at + literals[i].length();
+        }
+        return true;
+    }
+
+    /**
+     * Splits a pattern into the non-empty literal runs between its wildcards.
+     *
+     * @param pattern the pattern
+     * @return the literal runs, in order
+     */
+    static List<String> literals(String pattern) {
+        List<String> literals = new ArrayList<>();
+        for (String literal : pattern.split("\\*")) {
+            if (!literal.isEmpty()) {
+                literals.add(literal);
+            }
+        }
+        return literals;
+    }
+}
@@ -0,0 +1,136 @@
+package cs151.model.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Set of student IDs used for index postings. Small sets are a sorted int
+ * array, so a rare term costs a few bytes instead of a bitmap sized to the
+ * largest ID; once a set grows past a threshold it switches to a bitmap.
+ */
+final class IdSet {
+    // Largest set kept as a sorted array
+    private static final int MAX_SPARSE = 1024;
+
+    private int[] sparse = new int[2];
+    private int size;
+    // Non-null once the set has switched to a bitmap
+    private BitSet dense;
+
+    /**
+     * Adds an ID.
+     *
+     * @param id the ID
+     */
+    void add(int id) {
+        if (dense != null) {
+            if (!dense.get(id)) {
+                dense.set(id);
+                size++;
+            }
+            return;
+        }
+        int at = Arrays.binarySearch(sparse, 0, size, id);
+        if (at >= 0) {
+            return;
+        }
+        if (size == MAX_SPARSE) {
+            dense = toBitSet();
+            dense.set(id);
+            sparse = null;
+            size++;
+            return;
+        }
+        at = -at - 1;
+        if (size == sparse.length) {
+            sparse = Arrays.copyOf(sparse, size * 2);
+        }
+        System.arraycopy(sparse, at, sparse, at + 1, size - at);
+        sparse[at] = id;
+        size++;
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id the ID
+     */
+    void remove(int id) {
+        if (dense != null) {
+            if (dense.get(id)) {
+                dense.clear(id);
+                size--;
+            }
+            return;
+        }
+        int at = Arrays.binarySearch(sparse, 0, size, id);
+        if (at >= 0) {
+            System.arraycopy(sparse, at + 1, sparse, at, size - at - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Checks whether the set is empty.
+     *
+     * @return true if the set has no IDs
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of IDs in the set.
+     *
+     * @return the number of IDs
+     */
+    int cardinality() {
+        return size;
+    }
+
+    /**
+     * Adds every ID in this set to a bitmap.
+     *
+     * @param target the bitmap to add to
+     */
+    void orInto(BitSet target) {
+        if (dense != null) {
+            target.or(dense);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.set(sparse[i]);
+        }
+    }
+
+    /**
+     * Removes from a bitmap every ID that is not in this set.
+     *
+     * @param target the bitmap to intersect
+     */
+    void andInto(BitSet target) {
+        if (dense != null) {
+            target.and(dense);
+            return;
+        }
+        BitSet kept = new BitSet();
+        for (int i = 0; i < size; i++) {
+            if (target.get(sparse[i])) {
+                kept.set(sparse[i]);
+            }
+        }
+        target.clear();
+        target.or(kept);
+    }
+
+    /**
+     * Copies the set into a new bitmap.
+     *
+     * @return a new bitmap of the IDs
+     */
+    BitSet toBitSet() {
+        BitSet bits = new BitSet();
+        orInto(bits);
+        return bits;
+    }
+}
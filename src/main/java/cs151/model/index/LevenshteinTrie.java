@@ -0,0 +1,178 @@
+package cs151.model.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Trie of terms searched by edit distance, for finding every term within a
+ * few typos of a query without comparing against all of them. The search walks
+ * the trie carrying one row of the Levenshtein table per character, which
+ * simulates a Levenshtein automaton over the trie: terms sharing a prefix share
+ * the work, and a branch is abandoned as soon as no cell of its row is within
+ * the allowed distance. Each term carries the IDs of the students it belongs to.
+ */
+public class LevenshteinTrie {
+    private static final class Node {
+        // Child labels, sorted, and the child for each label
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        // Sorted IDs of the students with the term ending here; most terms
+        // have only a few, so this is far smaller than a BitSet sized to the largest ID
+        private int[] ids = new int[0];
+        private int idCount;
+
+        private Node child(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            return at >= 0 ? children[at] : null;
+        }
+
+        private Node addChild(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            if (at >= 0) {
+                return children[at];
+            }
+            at = -at - 1;
+            labels = insert(labels, at, label);
+            Node child = new Node();
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            grown[at] = child;
+            children = grown;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            char[] fewerLabels = new char[labels.length - 1];
+            Node[] fewerChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, fewerLabels, 0, at);
+            System.arraycopy(labels, at + 1, fewerLabels, at, labels.length - at - 1);
+            System.arraycopy(children, 0, fewerChildren, 0, at);
+            System.arraycopy(children, at + 1, fewerChildren, at, children.length - at - 1);
+            labels = fewerLabels;
+            children = fewerChildren;
+        }
+
+        private boolean isEmpty() {
+            return idCount == 0 && children.length == 0;
+        }
+
+        private static char[] insert(char[] array, int at, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, at);
+            System.arraycopy(array, at, grown, at + 1, array.length - at);
+            grown[at] = value;
+            return grown;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a student to a term, inserting the term if it is new.
+     *
+     * @param term the term
+     * @param id   the student's ID
+     */
+    void add(String term, int id) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.addChild(term.charAt(i));
+        }
+        int at = Arrays.binarySearch(node.ids, 0, node.idCount, id);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (node.idCount == node.ids.length) {
+            node.ids = Arrays.copyOf(node.ids, Math.max(1, node.idCount * 2));
+        }
+        System.arraycopy(node.ids, at, node.ids, at + 1, node.idCount - at);
+        node.ids[at] = id;
+        node.idCount++;
+    }
+
+    /**
+     * Removes a student from a term, dropping trie nodes no term needs any more.
+     *
+     * @param term the term
+     * @param id   the student's ID
+     */
+    void remove(String term, int id) {
+        remove(root, term, 0, id);
+    }
+
+    /**
+     * Removes a student from the term below a node.
+     *
+     * @return true if the node is now empty and can be unlinked
+     */
+    private boolean remove(Node node, String term, int depth, int id) {
+        if (depth == term.length()) {
+            int at = Arrays.binarySearch(node.ids, 0, node.idCount, id);
+            if (at >= 0) {
+                System.arraycopy(node.ids, at + 1, node.ids, at, node.idCount - at - 1);
+                node.idCount--;
+            }
+            return node.isEmpty();
+        }
+        char label = term.charAt(depth);
+        Node child = node.child(label);
+        if (child != null && remove(child, term, depth + 1, id)) {
+            node.removeChild(label);
+        }
+        return node.isEmpty();
+    }
+
+    /**
+     * Gets the IDs of the students with a term within an edit distance of the query.
+     *
+     * @param query       the query term
+     * @param maxDistance the largest number of single-character insertions,
+     *                    deletions and substitutions allowed
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet search(String query, int maxDistance) {
+        BitSet result = new BitSet();
+        // One row per trie depth; a term longer than the query plus the
+        // allowed edits can never match, so deeper rows are never needed
+        int[][] rows = new int[query.length() + maxDistance + 1][query.length() + 1];
+        for (int i = 0; i <= query.length(); i++) {
+            rows[0][i] = i;
+        }
+        collect(root, query, rows, 0, maxDistance, result);
+        return result;
+    }
+
+    /**
+     * Collects the matches below a node, given in rows[depth] the Levenshtein
+     * row of the query against the node's prefix.
+     */
+    private void collect(Node node, String query, int[][] rows, int depth, int maxDistance, BitSet result) {
+        int[] row = rows[depth];
+        if (row[query.length()] <= maxDistance) {
+            for (int i = 0; i < node.idCount; i++) {
+                result.set(node.ids[i]);
+            }
+        }
+        if (depth + 1 == rows.length) {
+            return;
+        }
+        int[] next = rows[depth + 1];
+        for (int c = 0; c < node.labels.length; c++) {
+            char label = node.labels[c];
+            next[0] = row[0] + 1;
+            int best = next[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = query.charAt(i - 1) == label ? 0 : 1;
+                next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+                best = Math.min(best, next[i]);
+            }
+            // Every longer term through this child is at least this far away
+            if (best <= maxDistance) {
+                collect(node.children[c], query, rows, depth + 1, maxDistance, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package cs151.model.index;
+
+import cs151.model.Comment;
+import cs151.model.Student;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary indexes over the stored students, keyed by student ID. Lists and
+ * single-valued attributes are dictionary-encoded bitmaps; yes/no flags are
+ * plain bitmaps. Free-text fields (name and job details) are covered by
+ * trigram indexes, and the words of names by a Levenshtein trie for
+ * typo-tolerant lookup. Comments are covered by a word index and a date
+ * index. Filters combine them with bitmap AND/OR instead of scanning.
+ */
+public class StudentIndexes {
+    /**
+     * Indexed student attributes with a small set of distinct values.
+     */
+    public enum Attribute {
+        LANGUAGE, DATABASE, ROLE, STATUS
+    }
+
+    /**
+     * Indexed free-text student fields.
+     */
+    public enum TextField {
+        NAME, JOB_DETAILS
+    }
+
+    /**
+     * Indexed yes/no student flags.
+     */
+    public enum Flag {
+        EMPLOYED, WHITELISTED, BLACKLISTED
+    }
+
+    /**
+     * Groups of indexed student data that change independently, so results
+     * computed from some of them can tell whether a change affects them.
+     * STUDENTS is which students exist, which every result depends on.
+     */
+    public enum Field {
+        NAME, JOB_DETAILS, LANGUAGE, DATABASE, ROLE, STATUS, EMPLOYED, WHITELISTED, BLACKLISTED, COMMENTS, STUDENTS;
+
+        /**
+         * Gets the field group an attribute is indexed in.
+         *
+         * @param attribute the attribute
+         * @return its field group
+         */
+        public static Field of(Attribute attribute) {
+            return switch (attribute) {
+                case LANGUAGE -> LANGUAGE;
+                case DATABASE -> DATABASE;
+                case ROLE -> ROLE;
+                case STATUS -> STATUS;
+            };
+        }
+
+        /**
+         * Gets the field group a text field is indexed in.
+         *
+         * @param field the text field
+         * @return its field group
+         */
+        public static Field of(TextField field) {
+            return switch (field) {
+                case NAME -> NAME;
+                case JOB_DETAILS -> JOB_DETAILS;
+            };
+        }
+
+        /**
+         * Gets the field group a flag is indexed in.
+         *
+         * @param flag the flag
+         * @return its field group
+         */
+        public static Field of(Flag flag) {
+            return switch (flag) {
+                case EMPLOYED -> EMPLOYED;
+                case WHITELISTED -> WHITELISTED;
+                case BLACKLISTED -> BLACKLISTED;
+            };
+        }
+    }
+
+    private final BitmapIndex languages = new BitmapIndex();
+    private final BitmapIndex databases = new BitmapIndex();
+    private final BitmapIndex roles = new BitmapIndex();
+    private final BitmapIndex statuses = new BitmapIndex();
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex jobDetails = new TrigramIndex();
+    private final LevenshteinTrie nameWords = new LevenshteinTrie();
+    private final CommentIndex comments = new CommentIndex();
+    private final BitSet employed = new BitSet();
+    private final BitSet whitelisted = new BitSet();
+    private final BitSet blacklisted = new BitSet();
+    private final BitSet all = new BitSet();
+    // Number of students with each flag set, by Flag ordinal
+    private final int[] flagCounts = new int[Flag.values().length];
+    private int size;
+
+    /**
+     * Indexes a student's profile, replacing the profile indexed under its ID
+     * before. Comments are indexed on their own, with {@link #addComment}, and
+     * stay indexed when the profile is replaced.
+     *
+     * @param student the student to index
+     */
+    public void add(Student student) {
+        int id = (int) student.getId();
+        remove(id);
+        languages.add(id, student.getProgrammingLanguages());
+        databases.add(id, student.getDatabasesKnown());
+        roles.add(id, Collections.singletonList(student.getPreferredProfessionalRole()));
+        statuses.add(id, Collections.singletonList(student.getAcademicStatus()));
+        names.add(id, student.getFullName());
+        for (String word : words(names.folded(id))) {
+            nameWords.add(word, id);
+        }
+        jobDetails.add(id, student.getJobDetails());
+        employed.set(id, student.isEmployed());
+        whitelisted.set(id, student.isWhitelisted());
+        blacklisted.set(id, student.isBlacklisted());
+        for (Flag flag : Flag.values()) {
+            if (flagBits(flag).get(id)) {
+                flagCounts[flag.ordinal()]++;
+            }
+        }
+        all.set(id);
+        size++;
+    }
+
+    /**
+     * Compares a student with what is indexed under its ID. Call it before
+     * indexing the student again.
+     *
+     * @param student the student as it is about to be indexed
+     * @return the profile field groups whose indexed data would change; every
+     *         group, including STUDENTS, if the student is not indexed yet
+     */
+    public Set<Field> changedFields(Student student) {
+        int id = (int) student.getId();
+        if (!all.get(id)) {
+            return EnumSet.allOf(Field.class);
+        }
+        Set<Field> changed = EnumSet.noneOf(Field.class);
+        if (!names.holds(id, student.getFullName())) {
+            changed.add(Field.NAME);
+        }
+        if (!jobDetails.holds(id, student.getJobDetails())) {
+            changed.add(Field.JOB_DETAILS);
+        }
+        if (!languages.holds(id, student.getProgrammingLanguages())) {
+            changed.add(Field.LANGUAGE);
+        }
+        if (!databases.holds(id, student.getDatabasesKnown())) {
+            changed.add(Field.DATABASE);
+        }
+        if (!roles.holds(id, Collections.singletonList(student.getPreferredProfessionalRole()))) {
+            changed.add(Field.ROLE);
+        }
+        if (!statuses.holds(id, Collections.singletonList(student.getAcademicStatus()))) {
+            changed.add(Field.STATUS);
+        }
+        if (employed.get(id) != student.isEmployed()) {
+            changed.add(Field.EMPLOYED);
+        }
+        if (whitelisted.get(id) != student.isWhitelisted()) {
+            changed.add(Field.WHITELISTED);
+        }
+        if (blacklisted.get(id) != student.isBlacklisted()) {
+            changed.add(Field.BLACKLISTED);
+        }
+        return changed;
+    }
+
+    /**
+     * Indexes one comment of an indexed student, without indexing the rest of
+     * the student again.
+     *
+     * @param id      the ID of the student the comment is about
+     * @param comment the comment
+     */
+    public void addComment(int id, Comment comment) {
+        if (all.get(id)) {
+            comments.add(id, comment);
+        }
+    }
+
+    /**
+     * Removes every comment indexed for a student, when the student is deleted.
+     *
+     * @param id the student's ID
+     */
+    public void removeComments(int id) {
+        comments.remove(id);
+    }
+
+    /**
+     * Removes the profile indexed under a student ID. Its comments stay
+     * indexed; see {@link #removeComments}.
+     *
+     * @param id the student's ID
+     */
+    public void remove(int id) {
+        if (!all.get(id)) {
+            return;
+        }
+        languages.remove(id);
+        databases.remove(id);
+        roles.remove(id);
+        statuses.remove(id);
+        for (String word : words(names.folded(id))) {
+            nameWords.remove(word, id);
+        }
+        names.remove(id);
+        jobDetails.remove(id);
+        for (Flag flag : Flag.values()) {
+            if (flagBits(flag).get(id)) {
+                flagCounts[flag.ordinal()]--;
+            }
+        }
+        employed.clear(id);
+        whitelisted.clear(id);
+        blacklisted.clear(id);
+        all.clear(id);
+        size--;
+    }
+
+    /**
+     * Gets the IDs of the students with an attribute value, compared case-insensitively.
+     *
+     * @param attribute the attribute to look in
+     * @param value     the value to look up
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withValue(Attribute attribute, String value) {
+        return index(attribute).lookup(value);
+    }
+
+    /**
+     * Gets the IDs of the students with an attribute value matching a wildcard pattern.
+     *
+     * @param attribute     the attribute to look in
+     * @param foldedPattern lower-case pattern where '*' matches any run of characters
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withValueMatching(Attribute attribute, String foldedPattern) {
+        return index(attribute).lookupMatching(foldedPattern);
+    }
+
+    /**
+     * Gets the IDs of the students with an attribute value containing the given text.
+     *
+     * @param attribute  the attribute to look in
+     * @param foldedText lower-case text to look for
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withValueContaining(Attribute attribute, String foldedText) {
+        return index(attribute).lookupContaining(foldedText);
+    }
+
+    /**
+     * Estimates how many students have an attribute value matching a pattern,
+     * from the running value counts, without building a bitmap.
+     *
+     * @param attribute     the attribute to look in
+     * @param foldedPattern lower-case pattern where '*' matches any run of characters
+     * @return the estimated number of matching students, at most the number of students
+     */
+    public int estimateValue(Attribute attribute, String foldedPattern) {
+        return Math.min(size, index(attribute).estimate(foldedPattern));
+    }
+
+    /**
+     * Gets the number of students with each value of an attribute. The counts
+     * are maintained as students are indexed, so no bitmap is counted.
+     *
+     * @param attribute the attribute
+     * @return the number of students with each value, for values with at least one
+     */
+    public Map<String, Integer> countByValue(Attribute attribute) {
+        return index(attribute).counts();
+    }
+
+    /**
+     * Gets the number of students with a flag set. The count is maintained
+     * as students are indexed.
+     *
+     * @param flag the flag
+     * @return the number of students with the flag set
+     */
+    public int countWithFlag(Flag flag) {
+        return flagCounts[flag.ordinal()];
+    }
+
+    /**
+     * Counts, for every value of an attribute, the students among the given
+     * IDs that have it.
+     *
+     * @param attribute the attribute
+     * @param within    the IDs of the students to count
+     * @return the number of those students with each value, for values with at least one
+     */
+    public Map<String, Integer> countByValue(Attribute attribute, BitSet within) {
+        return index(attribute).counts(within);
+    }
+
+    /**
+     * Gets, for every value of an attribute containing the given text, the
+     * IDs of the students with that value.
+     *
+     * @param attribute  the attribute to look in
+     * @param foldedText lower-case text to look for
+     * @return a new bitmap per matching value
+     */
+    public List<BitSet> withEachValueContaining(Attribute attribute, String foldedText) {
+        return index(attribute).lookupEachContaining(foldedText);
+    }
+
+    /**
+     * Gets the distinct values currently stored for an attribute.
+     *
+     * @param attribute the attribute
+     * @return the values, as first seen
+     */
+    public List<String> values(Attribute attribute) {
+        return index(attribute).values();
+    }
+
+    /**
+     * Gets the IDs, among the given candidates, of the students whose text
+     * field matches a wildcard pattern.
+     *
+     * @param field         the field to look in
+     * @param foldedPattern lower-case pattern where '*' matches any run of characters
+     * @param within        the candidate IDs to consider
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withText(TextField field, String foldedPattern, BitSet within) {
+        return index(field).search(foldedPattern, within);
+    }
+
+    /**
+     * Estimates how many students a text pattern search has to verify.
+     *
+     * @param field         the field to look in
+     * @param foldedPattern lower-case wildcard pattern
+     * @return the estimated number of candidates
+     */
+    public int estimateText(TextField field, String foldedPattern) {
+        return index(field).estimate(foldedPattern);
+    }
+
+    /**
+     * Checks whether a text pattern search can narrow its candidates with the
+     * trigram index, rather than checking every candidate.
+     *
+     * @param field         the field to look in
+     * @param foldedPattern lower-case wildcard pattern
+     * @return true if the search uses the index
+     */
+    public boolean isTextIndexed(TextField field, String foldedPattern) {
+        return index(field).isIndexed(foldedPattern);
+    }
+
+    /**
+     * Gets the IDs of the students whose name has, for every word of the
+     * query, a word within the given edit distance of it. For example
+     * "jonh smtih" finds "John Smith" at distance 2.
+     *
+     * @param foldedText  lower-case words to look for
+     * @param maxDistance the largest number of single-character insertions,
+     *                    deletions and substitutions allowed per word
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withNameNear(String foldedText, int maxDistance) {
+        BitSet matches = null;
+        for (String word : words(foldedText)) {
+            BitSet wordMatches = nameWords.search(word, maxDistance);
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.and(wordMatches);
+            }
+        }
+        return matches != null ? matches : new BitSet();
+    }
+
+    /**
+     * Gets the IDs of the students with a comment containing a word that
+     * matches a pattern, compared case-insensitively.
+     *
+     * @param foldedPattern lower-case word, where '*' matches any run of characters
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withCommentWord(String foldedPattern) {
+        return comments.withWord(foldedPattern);
+    }
+
+    /**
+     * Gets the IDs of the students with a comment dated within a range.
+     *
+     * @param from the first date, inclusive, or null for no lower bound
+     * @param to   the last date, inclusive, or null for no upper bound
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withCommentBetween(LocalDate from, LocalDate to) {
+        return comments.withDateBetween(from, to);
+    }
+
+    /**
+     * Estimates how many students have a comment word matching a pattern,
+     * without building a bitmap.
+     *
+     * @param foldedPattern lower-case word, where '*' matches any run of characters
+     * @return the estimated number of matching students, at most the number of students
+     */
+    public int estimateCommentWord(String foldedPattern) {
+        return comments.estimateWord(foldedPattern, size);
+    }
+
+    /**
+     * Estimates how many students have a comment dated within a range,
+     * without building a bitmap.
+     *
+     * @param from the first date, inclusive, or null for no lower bound
+     * @param to   the last date, inclusive, or null for no upper bound
+     * @return the estimated number of matching students, at most the number of students
+     */
+    public int estimateCommentBetween(LocalDate from, LocalDate to) {
+        return comments.estimateDateBetween(from, to, size);
+    }
+
+    /**
+     * Gets a student's case-folded text for a field.
+     *
+     * @param field the field
+     * @param id    the student's ID
+     * @return the folded text, or null if the student has none
+     */
+    public String foldedText(TextField field, int id) {
+        return index(field).folded(id);
+    }
+
+    /**
+     * Gets the average length of a text field over the indexed students.
+     *
+     * @param field the field
+     * @return the average length in characters
+     */
+    public double averageTextLength(TextField field) {
+        return index(field).averageLength();
+    }
+
+    /**
+     * Gets the IDs of the students with any field containing the given text,
+     * or with a flag whose keyword ("employed", "unemployed", "whitelist",
+     * "blacklist") contains it.
+     *
+     * @param foldedText lower-case text to look for
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withAnyFieldContaining(String foldedText) {
+        return withAnyFieldContaining(foldedText, all);
+    }
+
+    /**
+     * Gets the IDs, among the given candidates, of the students with any
+     * field or flag keyword containing the given text. Only the candidates'
+     * text fields are checked, which matters when the text is too short for
+     * the trigram indexes; see {@link #isAnyFieldIndexed}.
+     *
+     * @param foldedText lower-case text to look for
+     * @param within     the candidate IDs to consider
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withAnyFieldContaining(String foldedText, BitSet within) {
+        BitSet matches = new BitSet();
+        for (Attribute attribute : Attribute.values()) {
+            matches.or(withValueContaining(attribute, foldedText));
+        }
+        if ("employed".contains(foldedText)) {
+            matches.or(withFlag(Flag.EMPLOYED, true));
+        }
+        if ("unemployed".contains(foldedText)) {
+            matches.or(withFlag(Flag.EMPLOYED, false));
+        }
+        if ("whitelist".contains(foldedText)) {
+            matches.or(withFlag(Flag.WHITELISTED, true));
+        }
+        if ("blacklist".contains(foldedText)) {
+            matches.or(withFlag(Flag.BLACKLISTED, true));
+        }
+        matches.and(within);
+        String pattern = "*" + foldedText + "*";
+        for (TextField field : TextField.values()) {
+            matches.or(withText(field, pattern, within));
+        }
+        return matches;
+    }
+
+    /**
+     * Estimates how many students have any field or flag keyword containing
+     * the given text, from the running counts and the trigram estimates,
+     * without building a bitmap.
+     *
+     * @param foldedText lower-case text to look for
+     * @return the estimated number of matching students, at most the number of students
+     */
+    public int estimateAnyFieldContaining(String foldedText) {
+        long estimate = 0;
+        String pattern = "*" + foldedText + "*";
+        for (Attribute attribute : Attribute.values()) {
+            estimate += index(attribute).estimate(pattern);
+        }
+        if ("employed".contains(foldedText)) {
+            estimate += countWithFlag(Flag.EMPLOYED);
+        }
+        if ("unemployed".contains(foldedText)) {
+            estimate += size - countWithFlag(Flag.EMPLOYED);
+        }
+        if ("whitelist".contains(foldedText)) {
+            estimate += countWithFlag(Flag.WHITELISTED);
+        }
+        if ("blacklist".contains(foldedText)) {
+            estimate += countWithFlag(Flag.BLACKLISTED);
+        }
+        for (TextField field : TextField.values()) {
+            estimate += estimateText(field, pattern);
+        }
+        return (int) Math.min(size, estimate);
+    }
+
+    /**
+     * Checks whether a search for any field containing the given text can
+     * narrow the text fields with the trigram indexes, rather than checking
+     * every candidate's text.
+     *
+     * @param foldedText lower-case text to look for
+     * @return true if the text is long enough for the trigram indexes
+     */
+    public boolean isAnyFieldIndexed(String foldedText) {
+        return isTextIndexed(TextField.NAME, "*" + foldedText + "*");
+    }
+
+    /**
+     * Gets the IDs of the students with a flag set, or cleared.
+     *
+     * @param flag  the flag
+     * @param value true for students with the flag set, false for those without
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet withFlag(Flag flag, boolean value) {
+        BitSet bits = flagBits(flag);
+        BitSet result = (BitSet) all.clone();
+        if (value) {
+            result.and(bits);
+        } else {
+            result.andNot(bits);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the IDs of every indexed student.
+     *
+     * @return a new bitmap of all student IDs
+     */
+    public BitSet all() {
+        return (BitSet) all.clone();
+    }
+
+    /**
+     * Gets the number of indexed students.
+     *
+     * @return the number of students
+     */
+    public int size() {
+        return size;
+    }
+
+    private static List<String> words(String folded) {
+        if (folded == null || folded.isBlank()) {
+            return List.of();
+        }
+        return List.of(folded.trim().split("\\s+"));
+    }
+
+    private BitmapIndex index(Attribute attribute) {
+        return switch (attribute) {
+            case LANGUAGE -> languages;
+            case DATABASE -> databases;
+            case ROLE -> roles;
+            case STATUS -> statuses;
+        };
+    }
+
+    private BitSet flagBits(Flag flag) {
+        return switch (flag) {
+            case EMPLOYED -> employed;
+            case WHITELISTED -> whitelisted;
+            case BLACKLISTED -> blacklisted;
+        };
+    }
+
+    private TrigramIndex index(TextField field) {
+        return switch (field) {
+            case NAME -> names;
+            case JOB_DETAILS -> jobDetails;
+        };
+    }
+}
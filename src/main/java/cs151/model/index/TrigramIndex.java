@@ -0,0 +1,234 @@
+package cs151.model.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Trigram inverted index for case-insensitive pattern search over one
+ * free-text student field. Each three-character window of the folded text
+ * maps to the IDs of the students containing it; a search intersects the
+ * bitmaps of the pattern's trigrams and then verifies only the remaining
+ * candidates. When many candidates remain, verification is split into chunks
+ * of the ID range and run on a ForkJoin pool.
+ */
+public class TrigramIndex {
+    private static final int GRAM = 3;
+    // Candidates to verify above which verification runs in parallel
+    static final int PARALLEL_THRESHOLD = 16_384;
+    // Size of the ID range one parallel verification task covers, in 64-ID words
+    private static final int CHUNK_WORDS = 64;
+
+    // Trigram (three chars packed into a long) -> IDs of students containing it
+    private final Map<Long, IdSet> postings = new HashMap<>();
+    // Case-folded field text, by ID; null for IDs without text
+    private final List<String> foldedById = new ArrayList<>();
+    private final BitSet all = new BitSet();
+    // Sum of the lengths of all indexed texts
+    private long totalLength;
+
+    /**
+     * Indexes a student's field text, replacing whatever was indexed under its ID.
+     *
+     * @param id   the student's ID
+     * @param text the field text, or null if the student has none
+     */
+    void add(int id, String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        for (int end = GRAM; end <= folded.length(); end++) {
+            postings.computeIfAbsent(trigram(folded, end - GRAM), key -> new IdSet()).add(id);
+        }
+        while (foldedById.size() <= id) {
+            foldedById.add(null);
+        }
+        foldedById.set(id, folded);
+        all.set(id);
+        totalLength += folded.length();
+    }
+
+    /**
+     * Removes the text indexed under a student ID.
+     *
+     * @param id the student's ID
+     */
+    void remove(int id) {
+        if (!all.get(id)) {
+            return;
+        }
+        String folded = foldedById.get(id);
+        for (int end = GRAM; end <= folded.length(); end++) {
+            long key = trigram(folded, end - GRAM);
+            IdSet ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+        foldedById.set(id, null);
+        all.clear(id);
+        totalLength -= folded.length();
+    }
+
+    /**
+     * Gets the IDs, among the given candidates, of the students whose text
+     * matches a pattern. Literal runs shorter than a trigram cannot narrow the
+     * candidates, so a pattern without any longer run checks every candidate.
+     *
+     * @param foldedPattern lower-case wildcard pattern, anchored at both ends
+     * @param within        the candidate IDs to consider
+     * @return a new bitmap of matching student IDs
+     */
+    public BitSet search(String foldedPattern, BitSet within) {
+        BitSet candidates = (BitSet) within.clone();
+        candidates.and(all);
+        for (String literal : Glob.literals(foldedPattern)) {
+            for (int end = GRAM; end <= literal.length() && !candidates.isEmpty(); end++) {
+                IdSet ids = postings.get(trigram(literal, end - GRAM));
+                if (ids == null) {
+                    return new BitSet();
+                }
+                ids.andInto(candidates);
+            }
+        }
+        // Sharing every trigram does not imply matching the pattern, so verify
+        Glob glob = Glob.compile(foldedPattern);
+        if (candidates.cardinality() >= PARALLEL_THRESHOLD) {
+            return verifyInParallel(glob, candidates);
+        }
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (!glob.matches(foldedById.get(id))) {
+                candidates.clear(id);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Verifies candidates on the ForkJoin pool of the calling thread, or the
+     * common pool. Each task covers a whole number of 64-ID words and writes
+     * only those words of the result, so the tasks share no state and the
+     * result does not depend on how they were scheduled. The caller must keep
+     * the index from changing until this returns.
+     *
+     * @param glob       the compiled lower-case pattern
+     * @param candidates the candidate IDs, all indexed
+     * @return a new bitmap of the candidates whose text matches
+     */
+    private BitSet verifyInParallel(Glob glob, BitSet candidates) {
+        long[] words = new long[(candidates.length() + 63) >>> 6];
+        new VerifyTask(glob, candidates, words, 0, words.length).invoke();
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Verifies the candidates in a range of 64-ID words, splitting the range
+     * in half until it is at most a chunk long. Tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private final class VerifyTask extends RecursiveAction {
+        private final Glob glob;
+        private final BitSet candidates;
+        private final long[] words;
+        private final int fromWord;
+        private final int toWord;
+
+        VerifyTask(Glob glob, BitSet candidates, long[] words, int fromWord, int toWord) {
+            this.glob = glob;
+            this.candidates = candidates;
+            this.words = words;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > CHUNK_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                invokeAll(new VerifyTask(glob, candidates, words, fromWord, middle),
+                        new VerifyTask(glob, candidates, words, middle, toWord));
+                return;
+            }
+            int end = toWord << 6;
+            for (int id = candidates.nextSetBit(fromWord << 6); id >= 0 && id < end;
+                    id = candidates.nextSetBit(id + 1)) {
+                if (glob.matches(foldedById.get(id))) {
+                    words[id >>> 6] |= 1L << id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the case-folded text indexed under a student ID.
+     *
+     * @param id the student's ID
+     * @return the folded text, or null if the student has none
+     */
+    public String folded(int id) {
+        return all.get(id) ? foldedById.get(id) : null;
+    }
+
+    /**
+     * Checks whether the given text is what is indexed under a student ID.
+     *
+     * @param id   the student's ID
+     * @param text the text to compare with, or null for none
+     * @return true if the indexed text equals the text, ignoring case
+     */
+    boolean holds(int id, String text) {
+        return Objects.equals(folded(id), text == null ? null : text.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the average length of the indexed texts.
+     *
+     * @return the average length, or 0 if nothing is indexed
+     */
+    public double averageLength() {
+        int count = all.cardinality();
+        return count == 0 ? 0 : (double) totalLength / count;
+    }
+
+    /**
+     * Estimates how many students a pattern search has to verify: the size of
+     * the smallest trigram bitmap, or every student if the pattern has no trigram.
+     *
+     * @param foldedPattern lower-case wildcard pattern
+     * @return the estimated number of candidates
+     */
+    public int estimate(String foldedPattern) {
+        int estimate = all.cardinality();
+        for (String literal : Glob.literals(foldedPattern)) {
+            for (int end = GRAM; end <= literal.length(); end++) {
+                IdSet ids = postings.get(trigram(literal, end - GRAM));
+                estimate = Math.min(estimate, ids == null ? 0 : ids.cardinality());
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Checks whether a pattern search can narrow its candidates with the index.
+     *
+     * @param foldedPattern lower-case wildcard pattern
+     * @return true if the pattern has a literal run of at least a trigram
+     */
+    public boolean isIndexed(String foldedPattern) {
+        return Glob.literals(foldedPattern).stream().anyMatch(literal -> literal.length() >= GRAM);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
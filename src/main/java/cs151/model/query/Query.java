@@ -0,0 +1,101 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+import cs151.model.index.StudentIndexes.TextField;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Parsed student search query. Patterns are case-folded, and '*' in a pattern
+ * matches any run of characters.
+ */
+public sealed interface Query {
+    /**
+     * Matches students that match every clause; with no clauses, every student.
+     *
+     * @param clauses the clauses
+     */
+    record And(List<Query> clauses) implements Query {
+    }
+
+    /**
+     * Matches students that match at least one alternative.
+     *
+     * @param alternatives the alternatives
+     */
+    record Or(List<Query> alternatives) implements Query {
+    }
+
+    /**
+     * Matches students that do not match a clause.
+     *
+     * @param clause the negated clause
+     */
+    record Not(Query clause) implements Query {
+    }
+
+    /**
+     * Matches students with an attribute value matching a pattern, such as {@code lang:java}.
+     *
+     * @param attribute the attribute
+     * @param pattern   the case-folded pattern, matched against the whole value
+     */
+    record ValueTerm(Attribute attribute, String pattern) implements Query {
+    }
+
+    /**
+     * Matches students whose text field matches a pattern, such as {@code name:"ann*"}.
+     *
+     * @param field   the text field
+     * @param pattern the case-folded pattern, matched against the whole text
+     */
+    record TextTerm(TextField field, String pattern) implements Query {
+    }
+
+    /**
+     * Matches students whose name is within an edit distance of a text, word
+     * by word, such as {@code fuzzy:"jonh smtih"}.
+     *
+     * @param text        the case-folded text
+     * @param maxDistance the largest edit distance allowed per word
+     */
+    record FuzzyTerm(String text, int maxDistance) implements Query {
+    }
+
+    /**
+     * Matches students with a comment containing a word, such as {@code comment:internship}.
+     *
+     * @param pattern the case-folded pattern, matched against whole words
+     */
+    record CommentTerm(String pattern) implements Query {
+    }
+
+    /**
+     * Matches students with a comment dated within a range, such as
+     * {@code commented:2025-09-01..2025-09-30}.
+     *
+     * @param from the first date, inclusive, or null for no lower bound
+     * @param to   the last date, inclusive, or null for no upper bound
+     */
+    record CommentDateTerm(LocalDate from, LocalDate to) implements Query {
+    }
+
+    /**
+     * Matches students with a flag set or cleared, such as {@code is:whitelisted}.
+     *
+     * @param flag  the flag
+     * @param value the required flag value
+     */
+    record FlagTerm(Flag flag, boolean value) implements Query {
+    }
+
+    /**
+     * Matches students with any field or flag keyword containing a text, such as {@code java}.
+     *
+     * @param text the case-folded text
+     */
+    record AnyTerm(String text) implements Query {
+    }
+}
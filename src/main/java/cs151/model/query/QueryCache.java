@@ -0,0 +1,146 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes.Field;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Least-recently-used cache of query matches. Entries are keyed by the parsed
+ * query, so queries that differ only in case, spacing or quoting share one
+ * entry, and each entry records the repository version it was computed at.
+ * An entry is only served while none of the field groups its query reads
+ * has changed since, so editing a student's job details leaves cached
+ * language and flag filters in place.
+ */
+public class QueryCache {
+    /**
+     * Snapshot of the cache's effectiveness.
+     *
+     * @param hits    lookups served from the cache
+     * @param misses  lookups that found no current entry
+     * @param entries entries currently held
+     */
+    public record Stats(long hits, long misses, int entries) {
+        /**
+         * Gets the share of lookups served from the cache.
+         *
+         * @return the hit ratio between 0 and 1, or 0 before any lookup
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Matches of a query as of a repository version.
+     */
+    private record Entry(BitSet matches, long version) {
+    }
+
+    private final Map<Query, Entry> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the most entries to keep; the least recently used entry
+     *                 is evicted to make room for more
+     */
+    public QueryCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached matches of a query, if they are still current.
+     *
+     * @param query     the parsed query
+     * @param changedAt the latest version at which any of the query's
+     *                  {@linkplain #fields field groups} changed
+     * @return the matching student IDs, which must not be modified, or null
+     *         if the query is not cached or its entry is stale
+     */
+    public synchronized BitSet get(Query query, long changedAt) {
+        Entry entry = entries.get(query);
+        if (entry == null || entry.version() < changedAt) {
+            if (entry != null) {
+                entries.remove(query);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.matches();
+    }
+
+    /**
+     * Caches the matches of a query.
+     *
+     * @param query   the parsed query
+     * @param matches the matching student IDs; must not be modified afterwards
+     * @param version the repository version the matches were computed at
+     */
+    public synchronized void put(Query query, BitSet matches, long version) {
+        entries.put(query, new Entry(matches, version));
+    }
+
+    /**
+     * Drops every entry. The hit and miss counts are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the cache's hit and miss counts and size.
+     *
+     * @return the current statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, entries.size());
+    }
+
+    /**
+     * Gets the field groups a query reads, so it can be checked against the
+     * groups a change touched. Every query depends on which students exist,
+     * so the result always includes {@link Field#STUDENTS}, even for a blank
+     * query that reads no other group.
+     *
+     * @param query the parsed query
+     * @return the field groups the query's matches depend on
+     */
+    public static Set<Field> fields(Query query) {
+        Set<Field> fields = EnumSet.of(Field.STUDENTS);
+        collectFields(query, fields);
+        return fields;
+    }
+
+    private static void collectFields(Query query, Set<Field> fields) {
+        switch (query) {
+            case Query.And and -> and.clauses().forEach(clause -> collectFields(clause, fields));
+            case Query.Or or -> or.alternatives().forEach(alternative -> collectFields(alternative, fields));
+            case Query.Not not -> collectFields(not.clause(), fields);
+            case Query.ValueTerm term -> fields.add(Field.of(term.attribute()));
+            case Query.TextTerm term -> fields.add(Field.of(term.field()));
+            case Query.FuzzyTerm term -> fields.add(Field.NAME);
+            case Query.CommentTerm term -> fields.add(Field.COMMENTS);
+            case Query.CommentDateTerm term -> fields.add(Field.COMMENTS);
+            case Query.FlagTerm term -> fields.add(Field.of(term.flag()));
+            // Reads every profile field, but not the comments
+            case Query.AnyTerm term -> {
+                fields.addAll(EnumSet.allOf(Field.class));
+                fields.remove(Field.COMMENTS);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+import cs151.model.index.StudentIndexes.TextField;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the student search syntax. Clauses are separated by whitespace and
+ * must all match; {@code OR} between clauses matches either side. A clause is
+ * one of:
+ * <ul>
+ * <li>{@code lang:}, {@code db:}, {@code status:} or {@code role:} followed by
+ * a value, matched against the whole attribute value</li>
+ * <li>{@code name:} or {@code job:} followed by a value, matched anywhere in
+ * the text unless the value contains '*'</li>
+ * <li>{@code fuzzy:} followed by a value, matching names whose words are each
+ * within two edits of the value's words; {@code ~N} after the value sets the
+ * allowed edits, from 0 to 3</li>
+ * <li>{@code comment:} followed by words, matching students with a comment
+ * containing each word (not necessarily the same comment)</li>
+ * <li>{@code commented:} followed by a day ({@code 2025-09-15}), month
+ * ({@code 2025-09}) or year ({@code 2025}), or a range of them such as
+ * {@code 2025-09-01..2025-09-30}, {@code 2025-09..} or {@code ..2025},
+ * matching students with a comment dated within it</li>
+ * <li>{@code is:employed}, {@code is:unemployed}, {@code is:whitelisted} or
+ * {@code is:blacklisted}</li>
+ * <li>plain text, matched as one phrase anywhere in any field, or in the
+ * keywords "employed", "unemployed", "whitelist" and "blacklist" of the
+ * flags a student has set; consecutive plain words form one phrase, so a
+ * query without any other clause searches exactly as the global search
+ * did, and a quoted phrase is plain text too</li>
+ * </ul>
+ * A leading '-' negates a clause, or a single plain word or quoted phrase;
+ * values may be quoted to include spaces, '*' matches any run of
+ * characters, and all matching ignores case. For example:
+ * {@code lang:Java db:MySQL status:Senior -is:blacklisted name:"ann*"}.
+ */
+public final class QueryParser {
+    /**
+     * Edits allowed per word by {@code fuzzy:} when the query does not say.
+     */
+    public static final int DEFAULT_FUZZY_DISTANCE = 2;
+    private static final int MAX_FUZZY_DISTANCE = 3;
+
+    private final String input;
+    private int pos;
+
+    private QueryParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Parses a search query.
+     *
+     * @param input the query text; null or blank matches every student
+     * @return the parsed query
+     * @throws IllegalArgumentException if the query is malformed
+     */
+    public static Query parse(String input) {
+        if (input == null) {
+            return new Query.And(List.of());
+        }
+        return new QueryParser(input).parseOr();
+    }
+
+    private Query parseOr() {
+        List<Query> alternatives = new ArrayList<>();
+        alternatives.add(parseAnd());
+        while (skipWhitespace() && atOr()) {
+            pos += 2;
+            alternatives.add(parseAnd());
+        }
+        if (alternatives.size() > 1 && alternatives.contains(new Query.And(List.of()))) {
+            throw new IllegalArgumentException("OR must have a clause on both sides");
+        }
+        return alternatives.size() == 1 ? alternatives.getFirst() : new Query.Or(alternatives);
+    }
+
+    private Query parseAnd() {
+        List<Query> clauses = new ArrayList<>();
+        while (skipWhitespace() && !atOr()) {
+            clauses.add(atPlainWord() ? parsePhrase() : parseClause());
+        }
+        return clauses.size() == 1 ? clauses.getFirst() : new Query.And(clauses);
+    }
+
+    /**
+     * Reads a run of plain words as one phrase, keeping the whitespace
+     * between them.
+     */
+    private Query parsePhrase() {
+        int start = pos;
+        int end;
+        do {
+            while (pos < input.length() && !Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+            end = pos;
+        } while (skipWhitespace() && !atOr() && atPlainWord());
+        return new Query.AnyTerm(input.substring(start, end).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks whether the input continues with a plain word: one that is not
+     * negated, quoted or prefixed with a field.
+     */
+    private boolean atPlainWord() {
+        char first = input.charAt(pos);
+        if (first == '-' || first == '"') {
+            return false;
+        }
+        for (int i = pos; i < input.length() && !Character.isWhitespace(input.charAt(i)); i++) {
+            if (input.charAt(i) == ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean atOr() {
+        return input.startsWith("OR", pos) && isBoundary(pos + 2);
+    }
+
+    private Query parseClause() {
+        boolean negated = input.charAt(pos) == '-';
+        if (negated) {
+            pos++;
+        }
+        Query clause;
+        int start = pos;
+        if (pos < input.length() && input.charAt(pos) == '"') {
+            clause = new Query.AnyTerm(readQuoted());
+        } else {
+            while (pos < input.length() && !Character.isWhitespace(input.charAt(pos)) && input.charAt(pos) != ':') {
+                pos++;
+            }
+            String word = input.substring(start, pos);
+            if (pos < input.length() && input.charAt(pos) == ':') {
+                pos++;
+                clause = fieldClause(word.toLowerCase(Locale.ROOT), readValue());
+            } else if (word.isEmpty()) {
+                throw new IllegalArgumentException("Expected a search term after '-'");
+            } else {
+                clause = new Query.AnyTerm(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        return negated ? new Query.Not(clause) : clause;
+    }
+
+    private Query fieldClause(String field, String value) {
+        return switch (field) {
+            case "lang", "language" -> new Query.ValueTerm(Attribute.LANGUAGE, value);
+            case "db", "database" -> new Query.ValueTerm(Attribute.DATABASE, value);
+            case "status" -> new Query.ValueTerm(Attribute.STATUS, value);
+            case "role" -> new Query.ValueTerm(Attribute.ROLE, value);
+            case "name" -> new Query.TextTerm(TextField.NAME, textPattern(value));
+            case "job" -> new Query.TextTerm(TextField.JOB_DETAILS, textPattern(value));
+            case "fuzzy" -> fuzzyClause(value);
+            case "comment" -> commentClause(value);
+            case "commented" -> commentDateClause(value);
+            case "is" -> flagClause(value);
+            default -> throw new IllegalArgumentException("Unknown search field: " + field + ":");
+        };
+    }
+
+    private static Query fuzzyClause(String value) {
+        int tilde = value.lastIndexOf('~');
+        if (tilde < 0) {
+            return new Query.FuzzyTerm(value, DEFAULT_FUZZY_DISTANCE);
+        }
+        String distance = value.substring(tilde + 1);
+        if (!distance.matches("\\d") || Integer.parseInt(distance) > MAX_FUZZY_DISTANCE || tilde == 0) {
+            throw new IllegalArgumentException("Expected fuzzy:value~N with N from 0 to " + MAX_FUZZY_DISTANCE);
+        }
+        return new Query.FuzzyTerm(value.substring(0, tilde).trim(), Integer.parseInt(distance));
+    }
+
+    private static Query commentClause(String value) {
+        List<Query> words = new ArrayList<>();
+        for (String word : value.split("[^\\p{L}\\p{N}*]+")) {
+            if (!word.isEmpty()) {
+                words.add(new Query.CommentTerm(word));
+            }
+        }
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Expected a word after comment:");
+        }
+        return words.size() == 1 ? words.getFirst() : new Query.And(words);
+    }
+
+    private static Query commentDateClause(String value) {
+        int dots = value.indexOf("..");
+        try {
+            if (dots < 0) {
+                return new Query.CommentDateTerm(startOf(value), endOf(value));
+            }
+            String from = value.substring(0, dots);
+            String to = value.substring(dots + 2);
+            if (from.isEmpty() && to.isEmpty()) {
+                throw new DateTimeParseException("Empty range", value, 0);
+            }
+            return new Query.CommentDateTerm(from.isEmpty() ? null : startOf(from), to.isEmpty() ? null : endOf(to));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Expected commented: followed by a date such as 2025-09-15, "
+                    + "2025-09 or 2025, or a range such as 2025-09-01..2025-09-30");
+        }
+    }
+
+    /**
+     * Gets the first day of a day, month or year written as yyyy-MM-dd, yyyy-MM or yyyy.
+     */
+    private static LocalDate startOf(String date) {
+        return switch (date.length()) {
+            case 4 -> Year.parse(date).atDay(1);
+            case 7 -> YearMonth.parse(date).atDay(1);
+            default -> LocalDate.parse(date);
+        };
+    }
+
+    /**
+     * Gets the last day of a day, month or year written as yyyy-MM-dd, yyyy-MM or yyyy.
+     */
+    private static LocalDate endOf(String date) {
+        return switch (date.length()) {
+            case 4 -> Year.parse(date).atMonth(12).atEndOfMonth();
+            case 7 -> YearMonth.parse(date).atEndOfMonth();
+            default -> LocalDate.parse(date);
+        };
+    }
+
+    private static Query flagClause(String keyword) {
+        return switch (keyword) {
+            case "employed" -> new Query.FlagTerm(Flag.EMPLOYED, true);
+            case "unemployed" -> new Query.FlagTerm(Flag.EMPLOYED, false);
+            case "whitelisted" -> new Query.FlagTerm(Flag.WHITELISTED, true);
+            case "blacklisted" -> new Query.FlagTerm(Flag.BLACKLISTED, true);
+            default -> throw new IllegalArgumentException("Unknown flag: is:" + keyword);
+        };
+    }
+
+    /**
+     * Turns a text field value into a pattern: plain values match anywhere in
+     * the text, values with wildcards match the whole text.
+     */
+    private static String textPattern(String value) {
+        return value.indexOf('*') >= 0 ? value : "*" + value + "*";
+    }
+
+    private String readValue() {
+        if (pos < input.length() && input.charAt(pos) == '"') {
+            String quoted = readQuoted();
+            // A suffix such as ~1 directly after the quotes belongs to the value
+            int start = pos;
+            while (pos < input.length() && !Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+            return quoted + input.substring(start, pos).toLowerCase(Locale.ROOT);
+        }
+        int start = pos;
+        while (pos < input.length() && !Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw new IllegalArgumentException("Expected a value after '" + input.substring(0, pos).trim() + "'");
+        }
+        return input.substring(start, pos).toLowerCase(Locale.ROOT);
+    }
+
+    private String readQuoted() {
+        int end = input.indexOf('"', pos + 1);
+        if (end < 0) {
+            throw new IllegalArgumentException("Unterminated quote at position " + (pos + 1));
+        }
+        String value = input.substring(pos + 1, end).trim();
+        pos = end + 1;
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Empty quoted value at position " + pos);
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Skips whitespace.
+     *
+     * @return true if there is more input
+     */
+    private boolean skipWhitespace() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+        return pos < input.length();
+    }
+
+    private boolean isBoundary(int index) {
+        return index >= input.length() || Character.isWhitespace(input.charAt(index));
+    }
+}
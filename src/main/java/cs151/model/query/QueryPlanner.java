@@ -0,0 +1,223 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Evaluates queries against the student indexes. Every clause narrows a
+ * candidate set of student IDs, and the clauses of an AND run in order of
+ * cost: index-backed clauses first, most selective first, then clauses that
+ * have to check each remaining candidate, which by then are few. Costs are
+ * estimated from running counts and index sizes, never by running a lookup.
+ */
+public class QueryPlanner {
+    /**
+     * A clause with its estimated cost, computed once before sorting.
+     *
+     * @param clause   the clause
+     * @param scan     whether it checks candidates one by one
+     * @param estimate the estimated number of students it matches or checks
+     */
+    private record Cost(Query clause, boolean scan, int estimate) {
+    }
+
+    private static final Comparator<Cost> CHEAPEST_FIRST = Comparator.comparing(Cost::scan)
+            .thenComparingInt(Cost::estimate);
+
+    private final StudentIndexes indexes;
+
+    /**
+     * Creates a planner over the given indexes.
+     *
+     * @param indexes the student indexes to evaluate against
+     */
+    public QueryPlanner(StudentIndexes indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Finds the students matching a query.
+     *
+     * @param query the query to evaluate
+     * @return a new bitmap of the matching student IDs
+     */
+    public BitSet execute(Query query) {
+        return evaluate(query, indexes.all());
+    }
+
+    /**
+     * Finds the students matching a query among the given candidates, such as
+     * the results of a query it {@linkplain #narrows narrows}.
+     *
+     * @param query  the query to evaluate
+     * @param within the candidate IDs to consider
+     * @return a new bitmap of the matching student IDs
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    public BitSet execute(Query query, BitSet within) {
+        return evaluate(query, (BitSet) within.clone());
+    }
+
+    /**
+     * Checks whether every student matching one query also matches another,
+     * so the first can be evaluated within the results of the second. This is
+     * the case when each clause of the older query is implied by a clause of
+     * the newer one, for example when the newer query only adds clauses or
+     * extends a search term.
+     *
+     * @param newer the refined query
+     * @param older the query it may refine
+     * @return true if newer's matches are always a subset of older's
+     */
+    public static boolean narrows(Query newer, Query older) {
+        List<Query> newerClauses = newer instanceof Query.And and ? and.clauses() : List.of(newer);
+        List<Query> olderClauses = older instanceof Query.And and ? and.clauses() : List.of(older);
+        return olderClauses.stream().allMatch(o -> newerClauses.stream().anyMatch(n -> implies(n, o)));
+    }
+
+    /**
+     * Checks whether matching one clause guarantees matching another.
+     */
+    private static boolean implies(Query clause, Query other) {
+        if (clause.equals(other)) {
+            return true;
+        }
+        // Text containing a longer term also contains any part of it
+        if (clause instanceof Query.AnyTerm term && other instanceof Query.AnyTerm otherTerm) {
+            return term.text().contains(otherTerm.text());
+        }
+        if (clause instanceof Query.TextTerm term && other instanceof Query.TextTerm otherTerm
+                && term.field() == otherTerm.field()) {
+            return isContainsPattern(term.pattern()) && isContainsPattern(otherTerm.pattern())
+                    && term.pattern().contains(otherTerm.pattern().substring(1, otherTerm.pattern().length() - 1));
+        }
+        return false;
+    }
+
+    private static boolean isContainsPattern(String pattern) {
+        return pattern.length() >= 2 && pattern.startsWith("*") && pattern.endsWith("*")
+                && pattern.indexOf('*', 1) == pattern.length() - 1;
+    }
+
+    /**
+     * Orders the clauses of an AND the way {@link #execute} runs them.
+     *
+     * @param clauses the clauses
+     * @return a new list of the clauses in evaluation order
+     */
+    public List<Query> plan(List<Query> clauses) {
+        List<Cost> costs = new ArrayList<>(clauses.size());
+        for (Query clause : clauses) {
+            costs.add(new Cost(clause, requiresScan(clause), estimate(clause)));
+        }
+        costs.sort(CHEAPEST_FIRST);
+        List<Query> ordered = new ArrayList<>(costs.size());
+        for (Cost cost : costs) {
+            ordered.add(cost.clause());
+        }
+        return ordered;
+    }
+
+    /**
+     * Evaluates a query, restricted to the given candidates.
+     */
+    private BitSet evaluate(Query query, BitSet candidates) {
+        return switch (query) {
+            case Query.And and -> {
+                BitSet matches = candidates;
+                for (Query clause : plan(and.clauses())) {
+                    if (matches.isEmpty()) {
+                        break;
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Query cancelled");
+                    }
+                    matches = evaluate(clause, matches);
+                }
+                yield matches;
+            }
+            case Query.Or or -> {
+                BitSet matches = new BitSet();
+                for (Query alternative : or.alternatives()) {
+                    BitSet remaining = (BitSet) candidates.clone();
+                    remaining.andNot(matches);
+                    matches.or(evaluate(alternative, remaining));
+                }
+                yield matches;
+            }
+            case Query.Not not -> {
+                BitSet matches = (BitSet) candidates.clone();
+                matches.andNot(evaluate(not.clause(), candidates));
+                yield matches;
+            }
+            case Query.TextTerm text -> indexes.withText(text.field(), text.pattern(), candidates);
+            case Query.AnyTerm any -> indexes.withAnyFieldContaining(any.text(), candidates);
+            default -> {
+                BitSet matches = lookup(query);
+                matches.and(candidates);
+                yield matches;
+            }
+        };
+    }
+
+    /**
+     * Looks up a clause that is answered by bitmaps alone.
+     */
+    private BitSet lookup(Query query) {
+        return switch (query) {
+            case Query.ValueTerm value -> value.pattern().indexOf('*') >= 0
+                    ? indexes.withValueMatching(value.attribute(), value.pattern())
+                    : indexes.withValue(value.attribute(), value.pattern());
+            case Query.FlagTerm flag -> indexes.withFlag(flag.flag(), flag.value());
+            case Query.FuzzyTerm fuzzy -> indexes.withNameNear(fuzzy.text(), fuzzy.maxDistance());
+            case Query.CommentTerm comment -> indexes.withCommentWord(comment.pattern());
+            case Query.CommentDateTerm date -> indexes.withCommentBetween(date.from(), date.to());
+            default -> throw new IllegalArgumentException("Not a lookup clause: " + query);
+        };
+    }
+
+    /**
+     * Estimates how many students a clause matches, or for a scanning clause,
+     * how many it has to check. Estimates come from running counts and index
+     * sizes, so no bitmap is built; a fuzzy name search has no cheap
+     * estimate and is assumed to match everyone.
+     */
+    private int estimate(Query query) {
+        return switch (query) {
+            case Query.And and -> and.clauses().stream().mapToInt(this::estimate).min().orElse(indexes.size());
+            case Query.Or or -> (int) Math.min(indexes.size(),
+                    or.alternatives().stream().mapToLong(this::estimate).sum());
+            case Query.Not not -> requiresScan(not.clause())
+                    ? indexes.size() : indexes.size() - estimate(not.clause());
+            case Query.TextTerm text -> indexes.estimateText(text.field(), text.pattern());
+            case Query.ValueTerm value -> indexes.estimateValue(value.attribute(), value.pattern());
+            case Query.FlagTerm flag -> flag.value()
+                    ? indexes.countWithFlag(flag.flag()) : indexes.size() - indexes.countWithFlag(flag.flag());
+            case Query.AnyTerm any -> indexes.estimateAnyFieldContaining(any.text());
+            case Query.FuzzyTerm fuzzy -> indexes.size();
+            case Query.CommentTerm comment -> indexes.estimateCommentWord(comment.pattern());
+            case Query.CommentDateTerm date -> indexes.estimateCommentBetween(date.from(), date.to());
+        };
+    }
+
+    /**
+     * Checks whether a clause has to check candidates one by one because no
+     * index can narrow them.
+     */
+    private boolean requiresScan(Query query) {
+        return switch (query) {
+            case Query.And and -> and.clauses().stream().anyMatch(this::requiresScan);
+            case Query.Or or -> or.alternatives().stream().anyMatch(this::requiresScan);
+            case Query.Not not -> requiresScan(not.clause());
+            case Query.TextTerm text -> !indexes.isTextIndexed(text.field(), text.pattern());
+            // Too short for the trigram indexes, so every candidate's name and job text is checked
+            case Query.AnyTerm any -> !indexes.isAnyFieldIndexed(any.text());
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes;
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.TextField;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ranks matching students by relevance to a set of search terms and keeps only
+ * the best K in a bounded heap, so the full match set is never sorted.
+ * <p>
+ * A student's score sums, over the terms and fields, the field weight times a
+ * BM25-style term weight: the term's inverse document frequency times its
+ * saturated frequency in the field, normalized by field length for free text.
+ * <p>
+ * Scoring a candidate allocates nothing: free text is read already case-folded
+ * from the trigram indexes and searched with indexOf, and for list fields each
+ * term is resolved once per ranking to the bitmaps of the values containing
+ * it, so a candidate's frequency is a count of bitmaps holding its ID.
+ */
+public class RelevanceRanker {
+    // Field weights: a hit in the name counts most, one in the job details least
+    private static final double NAME_WEIGHT = 4.0;
+    private static final double LANGUAGE_WEIGHT = 3.0;
+    private static final double ROLE_WEIGHT = 2.0;
+    private static final double DATABASE_WEIGHT = 1.5;
+    private static final double JOB_DETAILS_WEIGHT = 1.0;
+    private static final double STATUS_WEIGHT = 1.0;
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * A student and its relevance score.
+     *
+     * @param id    the student's ID
+     * @param score the relevance score; higher is better
+     */
+    public record ScoredStudent(long id, double score) {
+    }
+
+    // Best first; equal scores keep the lower ID first
+    private static final Comparator<ScoredStudent> BEST_FIRST = Comparator
+            .comparingDouble(ScoredStudent::score).reversed()
+            .thenComparingLong(ScoredStudent::id);
+
+    /**
+     * A search term resolved against the indexes for one ranking.
+     *
+     * @param text      the case-folded term
+     * @param idf       the term's inverse document frequency
+     * @param languages bitmaps of the languages containing the term
+     * @param roles     bitmaps of the roles containing the term
+     * @param databases bitmaps of the databases containing the term
+     * @param statuses  bitmaps of the academic statuses containing the term
+     */
+    private record Term(String text, double idf, BitSet[] languages, BitSet[] roles, BitSet[] databases,
+            BitSet[] statuses) {
+    }
+
+    private final StudentIndexes indexes;
+
+    /**
+     * Creates a ranker over the given indexes.
+     *
+     * @param indexes the student indexes
+     */
+    public RelevanceRanker(StudentIndexes indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Gets the best-scoring candidates.
+     *
+     * @param terms      case-folded search terms
+     * @param candidates the IDs of the students to rank
+     * @param k          the maximum number of students to return
+     * @return up to k students, best first
+     */
+    public List<ScoredStudent> topK(List<String> terms, BitSet candidates, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        Term[] resolved = new Term[terms.size()];
+        int total = indexes.size();
+        for (int i = 0; i < resolved.length; i++) {
+            String term = terms.get(i);
+            int df = indexes.withAnyFieldContaining(term).cardinality();
+            resolved[i] = new Term(term, Math.log(1 + (total - df + 0.5) / (df + 0.5)),
+                    valuesContaining(Attribute.LANGUAGE, term), valuesContaining(Attribute.ROLE, term),
+                    valuesContaining(Attribute.DATABASE, term), valuesContaining(Attribute.STATUS, term));
+        }
+        double avgNameLength = Math.max(1, indexes.averageTextLength(TextField.NAME));
+        double avgJobLength = Math.max(1, indexes.averageTextLength(TextField.JOB_DETAILS));
+
+        // Min-heap of the best k so far: the root is the weakest kept student
+        PriorityQueue<ScoredStudent> best = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            String name = indexes.foldedText(TextField.NAME, id);
+            String job = indexes.foldedText(TextField.JOB_DETAILS, id);
+            double score = 0;
+            for (Term term : resolved) {
+                double termScore = NAME_WEIGHT * textWeight(name, term.text(), avgNameLength)
+                        + LANGUAGE_WEIGHT * listWeight(term.languages(), id)
+                        + ROLE_WEIGHT * listWeight(term.roles(), id)
+                        + DATABASE_WEIGHT * listWeight(term.databases(), id)
+                        + JOB_DETAILS_WEIGHT * textWeight(job, term.text(), avgJobLength)
+                        + STATUS_WEIGHT * listWeight(term.statuses(), id);
+                score += term.idf() * termScore;
+            }
+            // Only students that make it into the heap are allocated
+            ScoredStudent weakest = best.peek();
+            if (best.size() < k) {
+                best.add(new ScoredStudent(id, score));
+            } else if (score > weakest.score() || score == weakest.score() && id < weakest.id()) {
+                best.poll();
+                best.add(new ScoredStudent(id, score));
+            }
+        }
+        List<ScoredStudent> ranked = new ArrayList<>(best);
+        ranked.sort(BEST_FIRST);
+        return ranked;
+    }
+
+    /**
+     * Collects the terms of a query worth scoring: the text of every clause
+     * that is not negated, without wildcards.
+     *
+     * @param query the query
+     * @return the case-folded terms
+     */
+    public static List<String> terms(Query query) {
+        List<String> terms = new ArrayList<>();
+        collectTerms(query, terms);
+        return terms;
+    }
+
+    private static void collectTerms(Query query, List<String> terms) {
+        switch (query) {
+            case Query.And and -> and.clauses().forEach(clause -> collectTerms(clause, terms));
+            case Query.Or or -> or.alternatives().forEach(alternative -> collectTerms(alternative, terms));
+            case Query.AnyTerm any -> addTerm(any.text(), terms);
+            case Query.TextTerm text -> addTerm(text.pattern(), terms);
+            case Query.ValueTerm value -> addTerm(value.pattern(), terms);
+            default -> {
+                // Negated clauses and flags say nothing about relevance
+            }
+        }
+    }
+
+    private static void addTerm(String pattern, List<String> terms) {
+        for (String term : pattern.split("\\*")) {
+            if (!term.isBlank() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+    }
+
+    /**
+     * Saturated, length-normalized frequency of a term in a free-text field.
+     */
+    private static double textWeight(String folded, String term, double averageLength) {
+        if (folded == null) {
+            return 0;
+        }
+        int tf = 0;
+        for (int at = folded.indexOf(term); at >= 0; at = folded.indexOf(term, at + term.length())) {
+            tf++;
+        }
+        if (tf == 0) {
+            return 0;
+        }
+        double norm = 1 - B + B * folded.length() / averageLength;
+        return tf * (K1 + 1) / (tf + K1 * norm);
+    }
+
+    /**
+     * Saturated frequency of a term among a student's values of a field, one
+     * hit per distinct value containing the term.
+     *
+     * @param valuesWithTerm bitmaps of the field's values containing the term
+     * @param id             the student's ID
+     */
+    private static double listWeight(BitSet[] valuesWithTerm, int id) {
+        int tf = 0;
+        for (BitSet value : valuesWithTerm) {
+            if (value.get(id)) {
+                tf++;
+            }
+        }
+        return tf == 0 ? 0 : tf * (K1 + 1) / (tf + K1);
+    }
+
+    private BitSet[] valuesContaining(Attribute attribute, String term) {
+        return indexes.withEachValueContaining(attribute, term).toArray(new BitSet[0]);
+    }
+}
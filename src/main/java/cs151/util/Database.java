@@ -1,16 +1,114 @@
 package cs151.util;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
 
-import cs151.model.Student;
 import cs151.model.Comment;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import cs151.model.Student;
 
 public class Database {
     private static final String PATH = "src/main/data/";
+    private static final String STUDENTS_LOG = PATH + "/students.log";
+    // Append-only store of every comment, one line per comment, tagged with its student's ID.
+    // Accessed without channels, which an interrupted thread would close mid-read.
+    private static final String COMMENTS_LOG = PATH + "/comments.log";
+
+    // Number of log records allowed to pile up before they are folded into students.json
+    private static final int CHECKPOINT_THRESHOLD = 256;
+
+    private static final String OP_ADD = "add";
+    private static final String OP_UPDATE = "update";
+    private static final String OP_DELETE = "delete";
+
+    // Records currently in the log, or -1 until the log has been counted once
+    private static int pendingLogRecords = -1;
+
+    // Next unused student ID, or -1 until the student files have been read once
+    private static long nextStudentId = -1;
+
+    // Every readable line of comments.log, in file order, which is the order the comments were added
+    private static CommentLines commentLines = new CommentLines();
+    // Positions in commentLines of each student's comments, oldest first, by student ID
+    private static Map<Long, Positions> commentPositions = new HashMap<>();
+    // Size of comments.log that the comment index covers, or -1 until it has been built
+    private static long indexedCommentsSize = -1;
+    // Sequence number the next stored comment is given
+    private static long nextCommentSequence = 1;
+
+    /**
+     * A comment as stored, with the ID of its student.
+     */
+    private record CommentRecord(long studentId, Comment comment) {
+    }
+
+    /**
+     * Where each comment line is in comments.log, whose comment it is and its
+     * sequence number, in file order.
+     */
+    private static final class CommentLines {
+        private long[] starts = new long[64];
+        private int[] lengths = new int[64];
+        private long[] studentIds = new long[64];
+        private long[] sequences = new long[64];
+        private int size;
+
+        private int add(long start, int length, long studentId, long sequence) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+                studentIds = Arrays.copyOf(studentIds, size * 2);
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            starts[size] = start;
+            lengths[size] = length;
+            studentIds[size] = studentId;
+            sequences[size] = sequence;
+            return size++;
+        }
+    }
+
+    /**
+     * Positions in the comment lines of one student's comments, oldest first.
+     */
+    private static final class Positions {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    /**
+     * Identifies the on-disk state of the student files. Two equal states mean
+     * neither students.json nor students.log changed in between.
+     *
+     * @param snapshotKey      file key of students.json, changes when a checkpoint replaces it
+     * @param snapshotModified last modification time of students.json in milliseconds
+     * @param snapshotSize     size of students.json in bytes
+     * @param logModified      last modification time of students.log, or 0 if there is none
+     * @param logSize          size of students.log in bytes, or 0 if there is none
+     * @param commentsModified last modification time of comments.log, or 0 if there is none
+     * @param commentsSize     size of comments.log in bytes, or 0 if there is none
+     */
+    public record StudentsFileState(Object snapshotKey, long snapshotModified, long snapshotSize,
+            long logModified, long logSize, long commentsModified, long commentsSize) {
+    }
 
     /**
      * Makes sure that the data directory exists or creates it.
@@ -74,42 +172,100 @@ public class Database {
     }
 
     /**
-     * Deletes a student from the database by their full name.
+     * Deletes a student from the database by their ID.
      * 
-     * @param fullName the full name of the student to delete
+     * @param id the ID of the student to delete
      * @throws IOException if there's an error reading or writing from the database
      */
-    public static void deleteStudentByName(String fullName) throws IOException {
-        List<Student> students = loadStudents();
-        students.removeIf(s -> s.getFullName() != null && s.getFullName().equalsIgnoreCase(fullName));
-        updateStudents(students);
+    public static synchronized void deleteStudent(long id) throws IOException {
+        appendLogRecord(logRecord(OP_DELETE, id, null));
+        // The comment lines stay in the append-only store, but can no longer be reached
+        commentPositions.remove(id);
     }
 
     /**
-     * Loads all student profiles from the database.
+     * Loads all student profiles from the database: the students.json snapshot
+     * with every record of the students log replayed on top of it. Comments
+     * are not part of the profiles; see {@link #forEachComment}.
      * 
      * @return a list of all student profiles sorted alphabetically by name
      */
-    public static List<Student> loadStudents() {
-        List<Student> students = new ArrayList<>();
+    public static synchronized List<Student> loadStudents() {
         try {
-            String json = readStudentsFile();
-            JSONObject root = new JSONObject(json);
-            JSONArray studentsArray = root.getJSONArray("students");
-            for (int i = 0; i < studentsArray.length(); i++) {
-                JSONObject s = studentsArray.getJSONObject(i);
-                students.add(studentFromJson(s));
+            List<Student> students = new ArrayList<>();
+            boolean assignedIds = readAllStudents(students);
+            if (moveInlineComments(students) || assignedIds) {
+                // Persist the IDs just given to students stored without one, and drop moved comments
+                updateStudents(students);
             }
-            // Sort students alphabetically by name
-            students.sort((s1, s2) -> {
-                String name1 = s1.getFullName() != null ? s1.getFullName() : "";
-                String name2 = s2.getFullName() != null ? s2.getFullName() : "";
-                return name1.compareToIgnoreCase(name2);
-            });
+            return students;
         } catch (Exception e) {
             System.err.println("Error loading students from database: " + e.getMessage());
         }
-        return students;
+        return new ArrayList<>();
+    }
+
+    /**
+     * Reads the current state of the student files without reading their contents.
+     *
+     * @return the current file state, or null if it cannot be determined
+     */
+    public static synchronized StudentsFileState studentsFileState() {
+        try {
+            BasicFileAttributes snapshot = Files.readAttributes(Path.of(PATH, "students.json"),
+                    BasicFileAttributes.class);
+            BasicFileAttributes log = attributesIfExists(Path.of(STUDENTS_LOG));
+            BasicFileAttributes comments = attributesIfExists(Path.of(COMMENTS_LOG));
+            return new StudentsFileState(snapshot.fileKey(), snapshot.lastModifiedTime().toMillis(),
+                    snapshot.size(), log != null ? log.lastModifiedTime().toMillis() : 0,
+                    log != null ? log.size() : 0, comments != null ? comments.lastModifiedTime().toMillis() : 0,
+                    comments != null ? comments.size() : 0);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes attributesIfExists(Path path) throws IOException {
+        return Files.exists(path) ? Files.readAttributes(path, BasicFileAttributes.class) : null;
+    }
+
+    /**
+     * Reads the students.json snapshot and replays the students log on top of it.
+     * Students stored without an ID (files written before IDs existed) are given
+     * the next free ones, in file order.
+     *
+     * @param students the list to fill, sorted alphabetically by name
+     * @return true if any student had to be given an ID
+     * @throws IOException if there's an error reading either file
+     */
+    private static boolean readAllStudents(List<Student> students) throws IOException {
+        ensureStudentsFileExists();
+        StudentJsonCodec.Snapshot snapshot;
+        try (Reader reader = new BufferedReader(new FileReader(PATH + "/students.json"))) {
+            snapshot = StudentJsonCodec.readStudents(reader);
+        }
+        nextStudentId = Math.max(1, snapshot.nextId());
+        for (Student student : snapshot.students()) {
+            nextStudentId = Math.max(nextStudentId, student.getId() + 1);
+        }
+        boolean assignedIds = false;
+        Map<Long, Student> studentsById = new LinkedHashMap<>();
+        for (Student student : snapshot.students()) {
+            if (student.getId() <= 0) {
+                student.setId(nextStudentId++);
+                assignedIds = true;
+            }
+            studentsById.put(student.getId(), student);
+        }
+        assignedIds |= replayLog(studentsById);
+        students.addAll(studentsById.values());
+        // Sort students alphabetically by name
+        students.sort((s1, s2) -> {
+            String name1 = s1.getFullName() != null ? s1.getFullName() : "";
+            String name2 = s2.getFullName() != null ? s2.getFullName() : "";
+            return name1.compareToIgnoreCase(name2);
+        });
+        return assignedIds;
     }
 
     /**
@@ -131,177 +287,607 @@ public class Database {
     }
 
     /**
-     * Adds a new student profile to the database.
+     * Adds a new student profile to the database, giving it the next free ID
+     * if it does not have one yet. The student's comments are moved to the
+     * comment store once the profile is written, leaving its list empty.
      *
      * @param student the student profile to add to the database
-     * @throws IOException if there's an error reading or writing to the file
+     * @throws IOException if there's an error writing to the students log or the comment store
      */
-    public static void addStudent(Student student) throws IOException {
-        String json = readStudentsFile();
-        JSONObject root = new JSONObject(json);
-        JSONArray studentsArray = root.getJSONArray("students");
-        studentsArray.put(studentToJson(student));
-        writeStudentsFile(root.toString(2));
+    public static synchronized void addStudent(Student student) throws IOException {
+        if (nextStudentId < 0) {
+            readAllStudents(new ArrayList<>());
+        }
+        if (student.getId() <= 0) {
+            student.setId(nextStudentId);
+        }
+        nextStudentId = Math.max(nextStudentId, student.getId() + 1);
+        List<Comment> comments = new ArrayList<>(student.getComments());
+        student.getComments().clear();
+        appendLogRecord(logRecord(OP_ADD, 0, student));
+        // Written after the profile, so a comment never refers to an ID that was not stored
+        for (Comment comment : comments) {
+            appendComment(student.getId(), comment);
+        }
     }
 
     /**
-     * Updates the entire student database with new students
+     * Replaces a single student profile in the database, matched by its ID.
+     *
+     * @param student the updated student profile
+     * @throws IOException if there's an error writing to the students log
+     */
+    public static void updateStudent(Student student) throws IOException {
+        appendLogRecord(logRecord(OP_UPDATE, 0, student));
+    }
+
+    /**
+     * Updates the entire student database with new students.
+     * The list becomes the new snapshot and the students log is emptied.
      * 
      * @param students the complete list of students to save to the database
      * @throws IOException if there's an error writing to the file
      */
-    public static void updateStudents(List<Student> students) throws IOException {
-        JSONArray arr = new JSONArray();
-        for (Student s : students) {
-            arr.put(studentToJson(s));
+    public static synchronized void updateStudents(List<Student> students) throws IOException {
+        for (Student student : students) {
+            nextStudentId = Math.max(nextStudentId, student.getId() + 1);
         }
-        JSONObject root = new JSONObject();
-        root.put("students", arr);
-        writeStudentsFile(root.toString(2));
+        writeStudentsFile(students, Math.max(1, nextStudentId));
+        truncateLog();
     }
 
     /**
-     * Reads all lines from the programming languages file.
+     * Folds every pending log record into the students.json snapshot.
      *
-     * @return a list of all lines from the languages file
+     * @throws IOException if there's an error reading or writing the files
      */
-    private static List<String> readLanguagesFile() {
-        List<String> lines = new ArrayList<>();
-        try {
-            ensureLanguagesFileExists();
-            try (BufferedReader reader = new BufferedReader(new FileReader(PATH + "/languages.txt"))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    lines.add(line);
+    public static synchronized void checkpoint() throws IOException {
+        if (countLogRecords() == 0) {
+            return;
+        }
+        List<Student> students = new ArrayList<>();
+        readAllStudents(students);
+        moveInlineComments(students);
+        updateStudents(students);
+    }
+
+    /**
+     * Appends one comment to the comment store, giving it the next sequence
+     * number. Only the comment's own line is written; no other comment or
+     * student is read or rewritten.
+     *
+     * @param studentId the ID of the student the comment is about
+     * @param comment   the comment
+     * @return the comment as stored, with its sequence number
+     * @throws IOException if there's an error writing to the comment store
+     */
+    public static synchronized Comment appendComment(long studentId, Comment comment) throws IOException {
+        ensureDataDirectoryExists();
+        ensureCommentIndex();
+        Comment stored = comment.withSequence(nextCommentSequence);
+        byte[] record = commentRecord(studentId, stored).getBytes(StandardCharsets.UTF_8);
+        long start;
+        try (RandomAccessFile file = new RandomAccessFile(COMMENTS_LOG, "rw")) {
+            start = file.length();
+            if (start > 0 && !endsWithNewline(file, start)) {
+                // End a line torn by an interrupted append, so it is skipped rather than joined to this one
+                file.seek(start);
+                file.write('\n');
+                start++;
+            }
+            byte[] line = Arrays.copyOf(record, record.length + 1);
+            line[record.length] = '\n';
+            file.seek(start);
+            file.write(line);
+        }
+        nextCommentSequence++;
+        indexedCommentsSize = start + record.length + 1;
+        addCommentLine(start, record.length, studentId, stored.getSequence());
+        return stored;
+    }
+
+    /**
+     * Reads every stored comment, oldest first, and rebuilds the index of the
+     * comment store on the way.
+     *
+     * @param action receives each comment with the ID of its student
+     * @throws IOException if there's an error reading the comment store
+     */
+    public static synchronized void forEachComment(BiConsumer<Long, Comment> action) throws IOException {
+        scanComments(action);
+    }
+
+    /**
+     * Counts a student's stored comments without reading them.
+     *
+     * @param studentId the student's ID
+     * @return the number of comments stored for the student
+     * @throws IOException if the index has to be built and the comment store cannot be read
+     */
+    public static synchronized int commentCount(long studentId) throws IOException {
+        ensureCommentIndex();
+        Positions positions = commentPositions.get(studentId);
+        return positions != null ? positions.size : 0;
+    }
+
+    /**
+     * Reads a range of a student's comments, oldest first. Only the requested
+     * comments' lines are read, found through the index.
+     *
+     * @param studentId the student's ID
+     * @param from      the position of the first comment to read, inclusive
+     * @param to        the position of the last comment to read, exclusive
+     * @return the comments, oldest first; fewer than requested if the student has fewer
+     * @throws IOException if there's an error reading the comment store
+     */
+    public static synchronized List<Comment> readComments(long studentId, int from, int to) throws IOException {
+        ensureCommentIndex();
+        Positions positions = commentPositions.get(studentId);
+        int end = positions != null ? Math.min(to, positions.size) : 0;
+        List<Comment> comments = new ArrayList<>(Math.max(0, end - from));
+        if (from >= end) {
+            return comments;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(COMMENTS_LOG, "r")) {
+            for (int i = from; i < end; i++) {
+                comments.add(readCommentLine(file, positions.values[i]));
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Counts the lines of the comment store, including those of deleted
+     * students. Reading backwards from this position starts at the newest
+     * comment.
+     *
+     * @return the number of stored comment lines
+     * @throws IOException if the index has to be built and the comment store cannot be read
+     */
+    public static synchronized int commentLineCount() throws IOException {
+        ensureCommentIndex();
+        return commentLines.size;
+    }
+
+    /**
+     * Reads the newest comments stored before a position, newest first, across
+     * all students. Comments are stored in the order they were added, so only
+     * the lines returned are read, and the lines of excluded students are
+     * skipped without being read.
+     *
+     * @param before  the position to read backwards from, exclusive
+     * @param limit   the maximum number of comments to read
+     * @param include tells, by student ID, whose comments to read
+     * @param action  receives each comment read with the ID of its student
+     * @return the position of the oldest line visited, to read on from; 0 once no older lines remain
+     * @throws IOException if there's an error reading the comment store
+     */
+    public static synchronized int readCommentsBefore(int before, int limit, LongPredicate include,
+            BiConsumer<Long, Comment> action) throws IOException {
+        ensureCommentIndex();
+        int position = Math.min(before, commentLines.size);
+        if (position <= 0 || limit <= 0) {
+            return Math.max(position, 0);
+        }
+        int read = 0;
+        try (RandomAccessFile file = new RandomAccessFile(COMMENTS_LOG, "r")) {
+            while (position > 0 && read < limit) {
+                position--;
+                long studentId = commentLines.studentIds[position];
+                if (include.test(studentId)) {
+                    action.accept(studentId, readCommentLine(file, position));
+                    read++;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Moves comments stored inside student profiles, by files written before
+     * comments had their own store, into the comment store. Only comments
+     * beyond those the store already holds for a student are appended, so
+     * moving them again after an interruption does not duplicate any.
+     *
+     * @param students the students to move the comments of; their comment lists are emptied
+     * @return true if any student had comments inside its profile
+     * @throws IOException if there's an error reading or writing the comment store
+     */
+    private static boolean moveInlineComments(List<Student> students) throws IOException {
+        boolean moved = false;
+        for (Student student : students) {
+            List<Comment> inline = student.getComments();
+            if (inline.isEmpty()) {
+                continue;
+            }
+            for (int i = commentCount(student.getId()); i < inline.size(); i++) {
+                appendComment(student.getId(), inline.get(i));
+            }
+            inline.clear();
+            moved = true;
+        }
+        return moved;
+    }
+
+    /**
+     * Builds the index of the comment store, unless it already covers the
+     * whole file.
+     *
+     * @throws IOException if there's an error reading the comment store
+     */
+    private static void ensureCommentIndex() throws IOException {
+        Path path = Path.of(COMMENTS_LOG);
+        long size = Files.exists(path) ? Files.size(path) : 0;
+        if (size != indexedCommentsSize) {
+            scanComments(null);
+        }
+    }
+
+    /**
+     * Reads the comment store from start to end, recording where each
+     * comment's line is. Unreadable lines, such as one torn by an interrupted
+     * append, are skipped. Comments stored before they had sequence numbers
+     * are numbered in file order.
+     *
+     * @param action receives each comment with the ID of its student, or null
+     * @throws IOException if there's an error reading the comment store
+     */
+    private static void scanComments(BiConsumer<Long, Comment> action) throws IOException {
+        commentLines = new CommentLines();
+        commentPositions = new HashMap<>();
+        nextCommentSequence = 1;
+        indexedCommentsSize = -1;
+        Path path = Path.of(COMMENTS_LOG);
+        long position = 0;
+        if (Files.exists(path)) {
+            try (InputStream in = new FileInputStream(path.toFile())) {
+                byte[] chunk = new byte[1 << 16];
+                byte[] line = new byte[256];
+                int length = 0;
+                long lineStart = 0;
+                int read;
+                while ((read = in.read(chunk)) > 0) {
+                    for (int i = 0; i < read; i++, position++) {
+                        if (chunk[i] != '\n') {
+                            if (length == line.length) {
+                                line = Arrays.copyOf(line, length * 2);
+                            }
+                            line[length++] = chunk[i];
+                            continue;
+                        }
+                        indexCommentLine(line, length, lineStart, action);
+                        length = 0;
+                        lineStart = position + 1;
+                    }
                 }
+                indexCommentLine(line, length, lineStart, action);
             }
+        }
+        indexedCommentsSize = position;
+    }
+
+    private static void indexCommentLine(byte[] line, int length, long start, BiConsumer<Long, Comment> action) {
+        String record = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (record.isBlank()) {
+            return;
+        }
+        CommentRecord stored;
+        try {
+            stored = readCommentRecord(record);
         } catch (IOException e) {
-            System.err.println("Error reading languages file: " + e.getMessage());
+            System.err.println("Skipping unreadable comment record: " + e.getMessage());
+            return;
         }
-        return lines;
+        long sequence = stored.comment().getSequence() > 0 ? stored.comment().getSequence() : nextCommentSequence;
+        nextCommentSequence = Math.max(nextCommentSequence, sequence + 1);
+        addCommentLine(start, length, stored.studentId(), sequence);
+        if (action != null) {
+            action.accept(stored.studentId(), stored.comment().withSequence(sequence));
+        }
+    }
+
+    private static void addCommentLine(long start, int length, long studentId, long sequence) {
+        int position = commentLines.add(start, length, studentId, sequence);
+        commentPositions.computeIfAbsent(studentId, id -> new Positions()).add(position);
+    }
+
+    /**
+     * Reads the comment on one line of the comment store.
+     *
+     * @param file     the open comment store
+     * @param position the line's position in the index
+     * @return the comment, with its sequence number
+     * @throws IOException if the line cannot be read or decoded
+     */
+    private static Comment readCommentLine(RandomAccessFile file, int position) throws IOException {
+        byte[] line = new byte[commentLines.lengths[position]];
+        file.seek(commentLines.starts[position]);
+        int length = 0;
+        int read;
+        while (length < line.length && (read = file.read(line, length, line.length - length)) >= 0) {
+            length += read;
+        }
+        String record = new String(line, 0, length, StandardCharsets.UTF_8);
+        return readCommentRecord(record).comment().withSequence(commentLines.sequences[position]);
+    }
+
+    /**
+     * Encodes a single comment record, with the same comment keys as
+     * students.json.
+     *
+     * @return the record as one line of JSON
+     * @throws IOException if the record cannot be encoded
+     */
+    private static String commentRecord(long studentId, Comment comment) throws IOException {
+        StringWriter out = new StringWriter();
+        out.write("{\"id\":" + studentId + ",\"seq\":" + comment.getSequence() + ",\"timestamp\":");
+        StudentJsonCodec.writeString(out, comment.getTimestamp().toString());
+        out.write(",\"created_at_date\":");
+        StudentJsonCodec.writeString(out, comment.getCreatedAt() != null ? comment.getCreatedAt().toString() : null);
+        out.write(",\"comment_text\":");
+        StudentJsonCodec.writeString(out, comment.getText());
+        out.write('}');
+        return out.toString();
     }
 
     /**
-     * Reads the entire contents of the students JSON file as a string.
+     * Decodes a single comment record.
      *
-     * @return the complete JSON content of the students file
-     * @throws IOException if there's an error reading the file
+     * @throws IOException if the record is malformed
      */
-    private static String readStudentsFile() throws IOException {
+    private static CommentRecord readCommentRecord(String line) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(line));
+        long id = 0;
+        long sequence = 0;
+        String timestamp = null;
+        String createdAt = null;
+        String text = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> id = reader.nextLong();
+                case "seq" -> sequence = reader.nextLong();
+                case "timestamp" -> timestamp = reader.nextNullableString();
+                // Lines written before the log used the snapshot's key say "created_at"
+                case "created_at_date", "created_at" -> createdAt = reader.nextNullableString();
+                case "comment_text" -> text = reader.nextNullableString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (id <= 0) {
+            throw new IOException("Comment record without a student ID");
+        }
+        return new CommentRecord(id, Comment.fromDatabase(sequence, timestamp, createdAt, text));
+    }
+
+    private static boolean endsWithNewline(RandomAccessFile file, long size) throws IOException {
+        file.seek(size - 1);
+        return file.read() == '\n';
+    }
+
+    /**
+     * Appends one mutation record to the students log, and checkpoints once
+     * enough records have accumulated.
+     *
+     * @param record the mutation record to append, on a single line
+     * @throws IOException if there's an error writing to the log
+     */
+    private static synchronized void appendLogRecord(String record) throws IOException {
         ensureStudentsFileExists();
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(PATH + "/students.json"))) {
+        int records = countLogRecords();
+        try (RandomAccessFile file = new RandomAccessFile(STUDENTS_LOG, "rw")) {
+            long end = file.length();
+            if (end > 0 && !endsWithNewline(file, end)) {
+                // End a line torn by an interrupted append, so it is skipped rather than joined to this one
+                file.seek(end);
+                file.write('\n');
+                end++;
+            }
+            file.seek(end);
+            file.write((record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        }
+        pendingLogRecords = records + 1;
+        if (pendingLogRecords >= CHECKPOINT_THRESHOLD) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Applies every record of the students log, oldest first, to a list of students.
+     * Records are applied as upserts so replaying a record that already made it
+     * into the snapshot (e.g. a crash between snapshot write and log truncation) is harmless.
+     *
+     * @param students the snapshot contents to apply the log to, keyed by ID
+     * @return true if a record without IDs had to be given one
+     * @throws IOException if there's an error reading the log
+     */
+    private static boolean replayLog(Map<Long, Student> students) throws IOException {
+        File logFile = new File(STUDENTS_LOG);
+        if (!logFile.exists()) {
+            pendingLogRecords = 0;
+            return false;
+        }
+        int records = 0;
+        boolean assignedIds = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                sb.append(line);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    assignedIds |= applyLogRecord(students, line);
+                } catch (IOException e) {
+                    // A torn final line from an interrupted append; everything before it is intact
+                    System.err.println("Skipping unreadable students log record: " + e.getMessage());
+                    continue;
+                }
+                records++;
             }
         }
-        return sb.toString();
+        pendingLogRecords = records;
+        return assignedIds;
     }
 
     /**
-     * Writes content to the students JSON file
-     * 
-     * @param content the JSON content to write to the file
-     * @throws IOException if there's an error writing to the file
+     * Encodes a single log record.
+     *
+     * @param op      the operation
+     * @param id      the ID of the student a delete applies to, or 0
+     * @param student the new student data, or null
+     * @return the record as one line of JSON
+     * @throws IOException if the record cannot be encoded
      */
-    private static void writeStudentsFile(String content) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PATH + "/students.json", false))) {
-            writer.write(content);
+    private static String logRecord(String op, long id, Student student) throws IOException {
+        StringWriter out = new StringWriter();
+        out.write("{\"op\":");
+        StudentJsonCodec.writeString(out, op);
+        if (id > 0) {
+            out.write(",\"id\":" + id);
+        }
+        if (student != null) {
+            out.write(",\"student\":");
+            StudentJsonCodec.writeStudent(out, student);
         }
+        out.write('}');
+        return out.toString();
     }
 
     /**
-     * Converts a Student object to its JSON representation for storage.
-     * 
-     * @param student the student object to convert to JSON
-     * @return a JSONObject containing all student data
-     */
-    private static JSONObject studentToJson(Student student) {
-        JSONObject s = new JSONObject();
-        s.put("name", student.getFullName());
-        s.put("academic_status", student.getAcademicStatus());
-        s.put("employed", student.isEmployed());
-        s.put("job_details", student.getJobDetails());
-        s.put("programming_languages", student.getProgrammingLanguages());
-        s.put("databases", student.getDatabasesKnown());
-        s.put("preferred_role", student.getPreferredProfessionalRole());
-        s.put("whitelist", student.isWhitelisted());
-        s.put("blacklist", student.isBlacklisted());
-        List<Comment> comments = student.getComments();
-        if (comments != null) {
-            s.put("comments", commentsToJsonArray(comments));
-        } else {
-            s.put("comments", JSONObject.NULL);
-        }
-        return s;
-    }
-
-    /**
-     * Converts a list of Comment objects to a JSON array for storage.
+     * Decodes a single log record and applies it to the students. Records
+     * written before students had IDs identify them by name instead.
      *
-     * @param comments the list of comments to convert to JSON
-     * @return a JSONArray containing all comment data
+     * @param students the students to apply the record to, keyed by ID
+     * @param line     the log record
+     * @return true if the record's student had to be given an ID
+     * @throws IOException if the record is malformed
      */
-    private static JSONArray commentsToJsonArray(List<Comment> comments) {
-        JSONArray commentsArr = new JSONArray();
-        for (Comment c : comments) {
-            JSONObject cObj = new JSONObject();
-            String createdAtString = c.getCreatedAt() != null ? c.getCreatedAt().toString() : "";
-            cObj.put("created_at_date", createdAtString);
-            cObj.put("comment_text", c.getText());
-            commentsArr.put(cObj);
+    private static boolean applyLogRecord(Map<Long, Student> students, String line) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(line));
+        String op = null;
+        long id = 0;
+        String name = null;
+        Student student = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "op" -> op = reader.nextString();
+                case "id" -> id = reader.nextLong();
+                case "name" -> name = reader.nextNullableString();
+                case "student" -> student = StudentJsonCodec.readStudent(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id <= 0 && name != null) {
+            id = findIdByName(students, name);
+        }
+        if (OP_DELETE.equals(op)) {
+            students.remove(id);
+            return false;
+        }
+        if ((OP_ADD.equals(op) || OP_UPDATE.equals(op)) && student != null) {
+            boolean assignedId = false;
+            if (student.getId() <= 0) {
+                long existing = id > 0 ? id : findIdByName(students, student.getFullName());
+                assignedId = existing <= 0;
+                student.setId(assignedId ? nextStudentId : existing);
+            }
+            nextStudentId = Math.max(nextStudentId, student.getId() + 1);
+            students.put(student.getId(), student);
+            return assignedId;
         }
-        return commentsArr;
+        throw new IOException("Unknown students log operation: " + op);
     }
 
     /**
-     * Converts a JSON object to a Student object.
-     * 
-     * @param s the JSONObject containing student data
-     * @return a Student object
-     */
-    private static Student studentFromJson(JSONObject s) {
-        String name = s.optString("name", null);
-        String academicStatus = s.optString("academic_status", null);
-        boolean employed = s.optBoolean("employed", false);
-        String jobDetails = s.isNull("job_details") ? null : s.optString("job_details", null);
-
-        List<String> programmingLanguages = null;
-        if (!s.isNull("programming_languages")) {
-            JSONArray langs = s.getJSONArray("programming_languages");
-            programmingLanguages = new ArrayList<>();
-            for (int j = 0; j < langs.length(); j++) {
-                programmingLanguages.add(langs.getString(j));
+     * Looks up a student's ID by name, for log records that predate IDs.
+     *
+     * @return the student's ID, or 0 if no student has that name
+     */
+    private static long findIdByName(Map<Long, Student> students, String fullName) {
+        String key = ValidationUtils.normalizeName(fullName);
+        for (Student student : students.values()) {
+            if (key != null && key.equals(ValidationUtils.normalizeName(student.getFullName()))) {
+                return student.getId();
             }
         }
+        return 0;
+    }
 
-        List<String> databasesKnown = null;
-        if (!s.isNull("databases")) {
-            JSONArray dbs = s.getJSONArray("databases");
-            databasesKnown = new ArrayList<>();
-            for (int j = 0; j < dbs.length(); j++) {
-                databasesKnown.add(dbs.getString(j));
+    /**
+     * Counts the records in the students log, reading the file only the first time.
+     *
+     * @return the number of pending log records
+     * @throws IOException if there's an error reading the log
+     */
+    private static int countLogRecords() throws IOException {
+        if (pendingLogRecords < 0) {
+            File logFile = new File(STUDENTS_LOG);
+            int records = 0;
+            if (logFile.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            records++;
+                        }
+                    }
+                }
             }
+            pendingLogRecords = records;
         }
+        return pendingLogRecords;
+    }
 
-        String preferredRole = s.optString("preferred_role", null);
-        boolean whitelist = s.optBoolean("whitelist", false);
-        boolean blacklist = s.optBoolean("blacklist", false);
+    /**
+     * Empties the students log once its records are part of the snapshot.
+     *
+     * @throws IOException if the log cannot be deleted
+     */
+    private static void truncateLog() throws IOException {
+        Files.deleteIfExists(Path.of(STUDENTS_LOG));
+        pendingLogRecords = 0;
+    }
 
-        List<Comment> comments = null;
-        if (!s.isNull("comments")) {
-            JSONArray commentsArr = s.getJSONArray("comments");
-            comments = new ArrayList<>();
-            for (int j = 0; j < commentsArr.length(); j++) {
-                JSONObject c = commentsArr.getJSONObject(j);
-                String createdAt = c.optString("created_at_date", null);
-                String commentText = c.optString("comment_text", null);
-                comments.add(Comment.fromDatabase(createdAt, commentText));
+    /**
+     * Reads all lines from the programming languages file.
+     *
+     * @return a list of all lines from the languages file
+     */
+    private static List<String> readLanguagesFile() {
+        List<String> lines = new ArrayList<>();
+        try {
+            ensureLanguagesFileExists();
+            try (BufferedReader reader = new BufferedReader(new FileReader(PATH + "/languages.txt"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
             }
+        } catch (IOException e) {
+            System.err.println("Error reading languages file: " + e.getMessage());
         }
+        return lines;
+    }
 
-        return new Student(name, academicStatus, employed, jobDetails, programmingLanguages,
-                databasesKnown, preferredRole, comments, whitelist, blacklist);
+    /**
+     * Writes the students JSON file. The content goes to a temporary file
+     * first so a crash never leaves a half-written snapshot behind.
+     * 
+     * @param students the students to write to the file
+     * @param nextId   the next unused student ID
+     * @throws IOException if there's an error writing to the file
+     */
+    private static void writeStudentsFile(List<Student> students, long nextId) throws IOException {
+        ensureDataDirectoryExists();
+        Path tmp = Path.of(PATH, "students.json.tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp)) {
+            StudentJsonCodec.writeStudents(writer, students, nextId);
+        }
+        Files.move(tmp, Path.of(PATH, "students.json"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
     }
 }
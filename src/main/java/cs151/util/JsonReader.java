@@ -0,0 +1,302 @@
+package cs151.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull-style JSON reader over a character stream. It only keeps a small
+ * buffer in memory, so callers can decode documents of any size value by value.
+ */
+final class JsonReader {
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private final StringBuilder scratch = new StringBuilder();
+    private int pos;
+    private int limit;
+
+    /**
+     * Creates a reader over the given character stream.
+     *
+     * @param in the stream to read JSON from
+     */
+    JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Consumes the opening brace of an object.
+     *
+     * @throws IOException if the next token is not '{'
+     */
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    /**
+     * Consumes the closing brace of an object.
+     *
+     * @throws IOException if the next token is not '}'
+     */
+    void endObject() throws IOException {
+        expect('}');
+    }
+
+    /**
+     * Consumes the opening bracket of an array.
+     *
+     * @throws IOException if the next token is not '['
+     */
+    void beginArray() throws IOException {
+        expect('[');
+    }
+
+    /**
+     * Consumes the closing bracket of an array.
+     *
+     * @throws IOException if the next token is not ']'
+     */
+    void endArray() throws IOException {
+        expect(']');
+    }
+
+    /**
+     * Checks whether the current object or array has another element, skipping
+     * the separating comma if there is one.
+     *
+     * @return true if another element follows, false at '}' or ']'
+     * @throws IOException if the stream ends unexpectedly
+     */
+    boolean hasNext() throws IOException {
+        int c = peekToken();
+        if (c == ',') {
+            pos++;
+            c = peekToken();
+        }
+        return c != '}' && c != ']';
+    }
+
+    /**
+     * Reads the name of the next object member together with its ':' separator.
+     *
+     * @return the member name
+     * @throws IOException if the next token is not a member name
+     */
+    String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Checks whether the next value is the literal null.
+     *
+     * @return true if the next value is null
+     * @throws IOException if the stream ends unexpectedly
+     */
+    boolean peekNull() throws IOException {
+        return peekToken() == 'n';
+    }
+
+    /**
+     * Reads a string value.
+     *
+     * @return the decoded string
+     * @throws IOException if the next value is not a string
+     */
+    String nextString() throws IOException {
+        expect('"');
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            char c = buf[pos++];
+            if (c == '"') {
+                return scratch.toString();
+            } else if (c == '\\') {
+                scratch.append(readEscape());
+            } else {
+                scratch.append(c);
+            }
+        }
+    }
+
+    /**
+     * Reads a string value, or null for the literal null.
+     *
+     * @return the decoded string, or null
+     * @throws IOException if the next value is neither a string nor null
+     */
+    String nextNullableString() throws IOException {
+        if (peekNull()) {
+            nextNull();
+            return null;
+        }
+        return nextString();
+    }
+
+    /**
+     * Reads a boolean value.
+     *
+     * @return the boolean value
+     * @throws IOException if the next value is not a boolean
+     */
+    boolean nextBoolean() throws IOException {
+        int c = peekToken();
+        if (c == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        if (c == 'f') {
+            expectLiteral("false");
+            return false;
+        }
+        throw syntaxError("Expected a boolean");
+    }
+
+    /**
+     * Reads an integral number value.
+     *
+     * @return the number
+     * @throws IOException if the next value is not an integral number
+     */
+    long nextLong() throws IOException {
+        String number = readNumber();
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected an integer but was " + number);
+        }
+    }
+
+    /**
+     * Consumes the literal null.
+     *
+     * @throws IOException if the next value is not null
+     */
+    void nextNull() throws IOException {
+        peekToken();
+        expectLiteral("null");
+    }
+
+    /**
+     * Skips the next value, including any nested objects or arrays.
+     *
+     * @throws IOException if the next value is malformed
+     */
+    void skipValue() throws IOException {
+        switch (peekToken()) {
+            case '{' -> {
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+            }
+            case '[' -> {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case '"' -> nextString();
+            case 't', 'f' -> nextBoolean();
+            case 'n' -> nextNull();
+            default -> readNumber();
+        }
+    }
+
+    private String readNumber() throws IOException {
+        peekToken();
+        scratch.setLength(0);
+        while (pos < limit || fill()) {
+            char c = buf[pos];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                scratch.append(c);
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (scratch.isEmpty()) {
+            throw syntaxError("Unexpected character");
+        }
+        return scratch.toString();
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        char c = buf[pos++];
+        return switch (c) {
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (pos == limit && !fill()) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    int digit = Character.digit(buf[pos++], 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                yield (char) value;
+            }
+            default -> c;
+        };
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekToken() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if ((pos == limit && !fill()) || buf[pos] != literal.charAt(i)) {
+                throw syntaxError("Expected " + literal);
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it.
+     */
+    private int peekToken() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buf[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+        throw syntaxError("Unexpected end of input");
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buf, 0, buf.length);
+        if (read <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = read;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -0,0 +1,308 @@
+package cs151.util;
+
+import cs151.model.Comment;
+import cs151.model.Student;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming codec for the students.json schema. Students are decoded straight
+ * from a Reader and encoded straight to a Writer, without building a JSON tree
+ * or holding the whole file in memory.
+ */
+public final class StudentJsonCodec {
+    private static final String INDENT = "  ";
+
+    /**
+     * Contents of a students document.
+     *
+     * @param nextId   the next unused student ID, or 0 if the document does not record one
+     * @param students the students, in file order
+     */
+    public record Snapshot(long nextId, List<Student> students) {
+    }
+
+    private StudentJsonCodec() {
+    }
+
+    /**
+     * Reads a students document ({"next_id": n, "students": [...]}) from a stream.
+     *
+     * @param in the stream to read from
+     * @return the decoded document
+     * @throws IOException if the stream cannot be read or is not valid JSON
+     */
+    public static Snapshot readStudents(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        List<Student> students = new ArrayList<>();
+        long nextId = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (field.equals("students") && !reader.peekNull()) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    students.add(readStudent(reader));
+                }
+                reader.endArray();
+            } else if (field.equals("next_id") && !reader.peekNull()) {
+                nextId = reader.nextLong();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Snapshot(nextId, students);
+    }
+
+    /**
+     * Writes a students document ({"next_id": n, "students": [...]}) to a stream.
+     *
+     * @param out      the stream to write to
+     * @param students the students to encode
+     * @param nextId   the next unused student ID
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeStudents(Writer out, List<Student> students, long nextId) throws IOException {
+        out.write("{\n" + INDENT + "\"next_id\": " + nextId + ",\n" + INDENT + "\"students\": [");
+        for (int i = 0; i < students.size(); i++) {
+            out.write(i == 0 ? "\n" : ",\n");
+            writeStudent(out, students.get(i), INDENT + INDENT);
+        }
+        out.write(students.isEmpty() ? "]\n}\n" : "\n" + INDENT + "]\n}\n");
+    }
+
+    /**
+     * Decodes one student object.
+     *
+     * @param reader the reader positioned at the student object
+     * @return the decoded student
+     * @throws IOException if the object is malformed
+     */
+    static Student readStudent(JsonReader reader) throws IOException {
+        long id = 0;
+        String name = null;
+        String academicStatus = null;
+        boolean employed = false;
+        String jobDetails = null;
+        List<String> programmingLanguages = null;
+        List<String> databasesKnown = null;
+        String preferredRole = null;
+        List<Comment> comments = null;
+        boolean whitelist = false;
+        boolean blacklist = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peekNull()) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = reader.nextLong();
+                case "name" -> name = reader.nextString();
+                case "academic_status" -> academicStatus = reader.nextString();
+                case "employed" -> employed = reader.nextBoolean();
+                case "job_details" -> jobDetails = reader.nextString();
+                case "programming_languages" -> programmingLanguages = readStringArray(reader);
+                case "databases" -> databasesKnown = readStringArray(reader);
+                case "preferred_role" -> preferredRole = reader.nextString();
+                case "whitelist" -> whitelist = reader.nextBoolean();
+                case "blacklist" -> blacklist = reader.nextBoolean();
+                case "comments" -> comments = readComments(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        Student student = new Student(name, academicStatus, employed, jobDetails, programmingLanguages,
+                databasesKnown, preferredRole, comments, whitelist, blacklist);
+        student.setId(id);
+        return student;
+    }
+
+    /**
+     * Encodes one student object on a single line, as used by the students log.
+     *
+     * @param out     the stream to write to
+     * @param student the student to encode
+     * @throws IOException if the stream cannot be written
+     */
+    static void writeStudent(Writer out, Student student) throws IOException {
+        writeStudent(out, student, null);
+    }
+
+    /**
+     * Encodes one student object.
+     *
+     * @param out     the stream to write to
+     * @param student the student to encode
+     * @param indent  the indentation of the object, or null to write it on one line
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeStudent(Writer out, Student student, String indent) throws IOException {
+        String inner = indent == null ? null : indent + INDENT;
+        out.write(indent == null ? "{" : indent + "{");
+        boolean first = true;
+        if (student.getId() > 0) {
+            first = writeField(out, inner, first, "id", Long.toString(student.getId()));
+        }
+        first = writeStringField(out, inner, first, "name", student.getFullName());
+        first = writeStringField(out, inner, first, "academic_status", student.getAcademicStatus());
+        first = writeField(out, inner, first, "employed", Boolean.toString(student.isEmployed()));
+        first = writeStringField(out, inner, first, "job_details", student.getJobDetails());
+        first = writeStringArrayField(out, inner, first, "programming_languages", student.getProgrammingLanguages());
+        first = writeStringArrayField(out, inner, first, "databases", student.getDatabasesKnown());
+        first = writeStringField(out, inner, first, "preferred_role", student.getPreferredProfessionalRole());
+        first = writeField(out, inner, first, "whitelist", Boolean.toString(student.isWhitelisted()));
+        first = writeField(out, inner, first, "blacklist", Boolean.toString(student.isBlacklisted()));
+        writeFieldName(out, inner, first, "comments");
+        writeComments(out, inner, student.getComments());
+        out.write(indent == null ? "}" : "\n" + indent + "}");
+    }
+
+    /**
+     * Writes a JSON string literal, escaping characters as needed.
+     *
+     * @param out   the stream to write to
+     * @param value the string to write, or null for the literal null
+     * @throws IOException if the stream cannot be written
+     */
+    static void writeString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                case '\b' -> "\\b";
+                case '\f' -> "\\f";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escaped != null) {
+                out.write(value, start, i - start);
+                out.write(escaped);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static List<String> readStringArray(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values;
+    }
+
+    private static List<Comment> readComments(JsonReader reader) throws IOException {
+        List<Comment> comments = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String createdAt = null;
+            String text = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "created_at_date" -> createdAt = reader.nextNullableString();
+                    case "comment_text" -> text = reader.nextNullableString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            comments.add(Comment.fromDatabase(createdAt, text));
+        }
+        reader.endArray();
+        return comments;
+    }
+
+    private static void writeComments(Writer out, String indent, List<Comment> comments) throws IOException {
+        if (comments == null) {
+            out.write("null");
+            return;
+        }
+        String inner = indent == null ? null : indent + INDENT;
+        out.write('[');
+        for (int i = 0; i < comments.size(); i++) {
+            Comment c = comments.get(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(inner == null ? "{" : "\n" + inner + "{");
+            String field = inner == null ? null : inner + INDENT;
+            writeStringField(out, field, true, "created_at_date",
+                    c.getCreatedAt() != null ? c.getCreatedAt().toString() : "");
+            writeStringField(out, field, false, "comment_text", c.getText());
+            out.write(inner == null ? "}" : "\n" + inner + "}");
+        }
+        out.write(inner == null || comments.isEmpty() ? "]" : "\n" + indent + "]");
+    }
+
+    /**
+     * Writes a string member, skipping it entirely when the value is null.
+     *
+     * @return whether the next member is still the first one
+     */
+    private static boolean writeStringField(Writer out, String indent, boolean first, String name, String value)
+            throws IOException {
+        if (value == null) {
+            return first;
+        }
+        writeFieldName(out, indent, first, name);
+        writeString(out, value);
+        return false;
+    }
+
+    private static boolean writeStringArrayField(Writer out, String indent, boolean first, String name,
+            List<String> values) throws IOException {
+        if (values == null) {
+            return first;
+        }
+        writeFieldName(out, indent, first, name);
+        out.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(", ");
+            }
+            writeString(out, values.get(i));
+        }
+        out.write(']');
+        return false;
+    }
+
+    private static boolean writeField(Writer out, String indent, boolean first, String name, String rawValue)
+            throws IOException {
+        writeFieldName(out, indent, first, name);
+        out.write(rawValue);
+        return false;
+    }
+
+    private static void writeFieldName(Writer out, String indent, boolean first, String name) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        if (indent != null) {
+            out.write('\n');
+            out.write(indent);
+        }
+        writeString(out, name);
+        out.write(indent == null ? ":" : ": ");
+    }
+}
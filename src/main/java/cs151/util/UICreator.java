@@ -1,5 +1,6 @@
 package cs151.util;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
@@ -18,6 +19,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public class UICreator {
 
@@ -73,6 +77,58 @@ public class UICreator {
         };
     }
 
+    /**
+     * Hands the outcome of background work to the JavaFX Application Thread.
+     *
+     * @param <T>       the type of the work's result
+     * @param work      the background work
+     * @param onSuccess receives the result on the JavaFX Application Thread
+     * @param onFailure receives what the work threw on the JavaFX Application Thread
+     */
+    public static <T> void onFxThread(CompletableFuture<T> work, Consumer<T> onSuccess,
+            Consumer<Throwable> onFailure) {
+        work.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onFailure.accept(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        }));
+    }
+
+    /**
+     * Creates a placeholder shown while a view's data loads
+     *
+     * @param message the text to show under the progress indicator
+     * @return a VBox with a spinning progress indicator and the message
+     */
+    public static VBox loadingBox(String message) {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(48, 48);
+        Label label = new Label(message);
+        label.setStyle(AppUtils.text());
+        VBox box = new VBox(12, indicator, label);
+        box.setAlignment(Pos.CENTER);
+        return box;
+    }
+
+    /**
+     * Shows a loading placeholder as the stage's scene until a view is ready
+     *
+     * @param stage   the stage to show it on
+     * @param title   the window title to display
+     * @param message the text to show under the progress indicator
+     * @return the placeholder, whose message can be replaced if loading fails
+     */
+    public static VBox showLoading(Stage stage, String title, String message) {
+        VBox box = loadingBox(message);
+        VBox root = createStyledVBox(box);
+        VBox.setVgrow(box, Priority.ALWAYS);
+        createStandardScene(root, title, stage, () -> { });
+        return box;
+    }
+
     /**
      * Creates a styled error label for displaying error messages
      * 
@@ -187,6 +243,20 @@ public class UICreator {
         return table;
     }
 
+    /**
+     * Creates a styled ListView. Only the visible rows get cells, so it suits
+     * lists too long to lay out as one label per item.
+     *
+     * @param <T> the type of items in the list
+     * @return a styled, empty ListView
+     */
+    public static <T> ListView<T> listView() {
+        ListView<T> list = new ListView<>();
+        list.setFocusTraversable(false);
+        list.setStyle(AppUtils.tableView());
+        return list;
+    }
+
     /**
      * Creates a styled TextArea with responsive width binding
      * 
@@ -1,5 +1,7 @@
 package cs151.util;
 
+import java.util.Locale;
+
 public class ValidationUtils {
 
     /**
@@ -95,6 +97,20 @@ public class ValidationUtils {
         return str != null ? str.trim() : null;
     }
 
+    /**
+     * Normalizes a name for use as a lookup key: trimmed, inner whitespace
+     * collapsed to single spaces and case-folded.
+     *
+     * @param name The name to normalize
+     * @return The normalized name, or null if input was null
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Validates that a full name contains at least first and last name.
      *
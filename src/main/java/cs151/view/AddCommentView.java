@@ -1,6 +1,8 @@
 package cs151.view;
 
 import cs151.controller.CommentController;
+import cs151.controller.StudentProfileController;
+import cs151.model.DataContext;
 import cs151.util.AppUtils;
 import cs151.util.UICreator;
 import javafx.application.Platform;
@@ -12,19 +14,34 @@ import javafx.stage.Stage;
 
 public class AddCommentView {
     private final Stage stage;
-    private final String studentName;
+    private final long studentId;
     private final CommentController commentController;
+    private final StudentProfileController studentController;
     private final Runnable backAction;
 
-    public AddCommentView(Stage stage, String studentName, Runnable backAction) {
+    public AddCommentView(Stage stage, long studentId, Runnable backAction) {
         this.stage = stage;
-        this.studentName = studentName;
+        this.studentId = studentId;
         this.commentController = new CommentController();
+        this.studentController = new StudentProfileController();
         this.backAction = backAction;
     }
 
     public void view() {
-        String prompt = "Student Name: " + studentName;
+        VBox loading = UICreator.showLoading(stage, "Add Comment", "Loading student...");
+        UICreator.onFxThread(DataContext.supplyAsync(() -> studentController.getStudentFullName(studentId)),
+                fullName -> {
+                    if (fullName == null) {
+                        backAction.run();
+                    } else {
+                        showForm(fullName);
+                    }
+                },
+                error -> loading.getChildren().setAll(new Label("Failed to load student: " + error.getMessage())));
+    }
+
+    private void showForm(String fullName) {
+        String prompt = "Student Name: " + fullName;
         Label title = UICreator.titleLabel(prompt, 28);
         double p = 0.3;
 
@@ -56,17 +73,31 @@ public class AddCommentView {
         submitBtn.setOnAction(e -> {
             String commentText = commentBox.getText().trim();
             if (!commentText.isEmpty()) {
-                boolean success = commentController.addCommentToStudent(studentName, commentText);
-                if (success) {
-                    commentBox.clear();
-                    Alert alert = new Alert(
-                            Alert.AlertType.INFORMATION, "Comment added successfully!",
-                            ButtonType.OK);
-                    alert.showAndWait();
-                    new OneStudentProfileView(stage, studentName
-                    )
-                            .view();
-                }
+                submitBtn.setDisable(true);
+                UICreator.onFxThread(
+                        DataContext.supplyAsync(() -> commentController.addCommentToStudent(studentId, commentText)),
+                        success -> {
+                            submitBtn.setDisable(false);
+                            if (success) {
+                                commentBox.clear();
+                                Alert alert = new Alert(
+                                        Alert.AlertType.INFORMATION, "Comment added successfully!",
+                                        ButtonType.OK);
+                                alert.showAndWait();
+                                new OneStudentProfileView(stage, studentId
+                                )
+                                        .view();
+                            } else {
+                                // The student was deleted while the form was open
+                                submitBtn.setDisable(true);
+                                commentBox.setDisable(true);
+                                UICreator.showError(messageLabel,
+                                        "This student no longer exists, so the comment was not saved. Use Back to return to the list.");
+                            }
+                        }, error -> {
+                            submitBtn.setDisable(false);
+                            UICreator.showError(messageLabel, "Could not save the comment: " + error.getMessage());
+                        });
             } else {
                 UICreator.showError(messageLabel, "Comment cannot be empty.");
             }
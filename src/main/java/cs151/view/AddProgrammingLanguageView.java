@@ -1,6 +1,7 @@
 package cs151.view;
 
 import cs151.controller.ProgrammingLanguageController;
+import cs151.model.DataContext;
 import cs151.util.UICreator;
 import cs151.util.AppUtils;
 import javafx.application.Platform;
@@ -53,19 +54,28 @@ public class AddProgrammingLanguageView {
 
         submitBtn.setOnAction(event -> {
             String lang = language.getText().trim();
-            String validationError = controller.validateLanguageName(lang);
-
-            if (validationError != null) {
-                UICreator.showError(errorLabel, validationError);
-            } else {
-                boolean success = controller.addLanguage(lang);
-                if (success) {
+            submitBtn.setDisable(true);
+            // Validation checks for duplicates against the stored languages, so it runs with the save
+            UICreator.onFxThread(DataContext.supplyAsync(() -> {
+                String validationError = controller.validateLanguageName(lang);
+                if (validationError == null && !controller.addLanguage(lang)) {
+                    return "Could not save the programming language.";
+                }
+                return validationError;
+            }), validationError -> {
+                submitBtn.setDisable(false);
+                if (validationError != null) {
+                    UICreator.showError(errorLabel, validationError);
+                } else {
                     language.clear();
                     UICreator.hideError(errorLabel);
                     new AllAddedProgrammingLanguagesView(stage, () -> new AddProgrammingLanguageView(stage).view())
                             .view();
                 }
-            }
+            }, error -> {
+                submitBtn.setDisable(false);
+                UICreator.showError(errorLabel, "Could not save the programming language: " + error.getMessage());
+            });
         });
 
         allLangsBtn.setOnAction(
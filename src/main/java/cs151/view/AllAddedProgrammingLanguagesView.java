@@ -1,8 +1,10 @@
 package cs151.view;
 
 import cs151.controller.ProgrammingLanguageController;
+import cs151.model.DataContext;
 import cs151.util.UICreator;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -23,7 +25,12 @@ public class AllAddedProgrammingLanguagesView {
     }
 
     public void view() {
-        TableView<String> tableView = UICreator.tableView(controller.getAllLanguages());
+        TableView<String> tableView = UICreator.tableView(null);
+        tableView.setPlaceholder(UICreator.loadingBox("Loading languages..."));
+        UICreator.onFxThread(DataContext.supplyAsync(controller::getAllLanguages), languages -> {
+            tableView.setPlaceholder(new Label("No programming languages added yet"));
+            tableView.getItems().setAll(languages);
+        }, error -> tableView.setPlaceholder(new Label("Failed to load languages: " + error.getMessage())));
         double p = 0.3;
         HBox buttonBox = UICreator.createNavigationButtonBox();
         Button backBtn = UICreator.button("Back", buttonBox, p);
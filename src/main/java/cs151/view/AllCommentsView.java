@@ -1,76 +1,51 @@
 package cs151.view;
 
 import cs151.controller.CommentController;
+import cs151.model.StudentProfile.CommentEntry;
 import cs151.util.UICreator;
 import cs151.util.AppUtils;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class AllCommentsView {
     private final Stage stage;
-    private final String studentName;
+    private final long studentId;
     private final Runnable backAction;
     private final CommentController commentController;
 
-    public AllCommentsView(Stage stage, String studentName, Runnable backAction) {
+    public AllCommentsView(Stage stage, long studentId, Runnable backAction) {
         this.stage = stage;
-        this.studentName = studentName;
+        this.studentId = studentId;
         this.backAction = backAction;
         this.commentController = new CommentController();
     }
 
     public void view() {
         Label title = UICreator.titleLabel("Student Details", 28);
-        VBox contentBox = createStudentDetailsBox();
-        ScrollPane scrollPane = UICreator.basicScrollPane(contentBox);
-        scrollPane.setPrefViewportHeight(500);
-        scrollPane.setPrefViewportWidth(640);
+        Label countLabel = createFieldLabel("Comments: ");
+
+        PagedList<CommentEntry> comments = new PagedList<>(commentController.commentPages(studentId),
+                comment -> "• " + safe(comment.text())
+                        + (comment.createdAt() != null ? " (" + comment.createdAt() + ")" : ""),
+                "comments");
 
         HBox buttonBox = createNavigationButtons();
-        VBox root = UICreator.createStyledVBox(title, scrollPane, buttonBox);
+        VBox root = UICreator.createStyledVBox(title, countLabel, comments.listView(), buttonBox);
         Runnable applyResponsiveLayout = UICreator.layoutBuilder(root);
         UICreator.createStandardScene(root, "Student Details", stage, applyResponsiveLayout);
-    }
-
-    private VBox createStudentDetailsBox() {
-        VBox contentBox = new VBox(12);
-
-        // Add comments
-        List<String> commentTexts = commentController.getStudentCommentTexts(studentName);
-        List<String> commentDates = commentController.getStudentCommentDates(studentName);
-
-        if (commentTexts != null && !commentTexts.isEmpty()) {
-            contentBox.getChildren().add(createFieldLabel());
-            for (int i = 0; i < commentTexts.size(); i++) {
-                String date = (i < commentDates.size()) ? commentDates.get(i) : "";
-                String commentWithDate = safe(commentTexts.get(i)) + (date.isEmpty() ? "" : " (" + date + ")");
-                contentBox.getChildren().add(createCommentLabel(commentWithDate));
-            }
-        }
 
-        return contentBox;
-    }
-
-    private Label createFieldLabel() {
-        Label label = new Label("Comments: ");
-        label.setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, AppUtils.DEFAULT_FONT_SIZE));
-        label.setWrapText(true);
-        return label;
+        comments.load(firstPage -> countLabel.setText("Comments (" + firstPage.total() + "), newest first:"));
     }
 
-    private Label createCommentLabel(String comment) {
-        Label label = new Label("• " + comment);
+    private Label createFieldLabel(String text) {
+        Label label = new Label(text);
         label.setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, AppUtils.DEFAULT_FONT_SIZE));
         label.setWrapText(true);
-        label.setStyle("-fx-padding: 0 0 0 20;");
         return label;
     }
 
@@ -2,6 +2,8 @@ package cs151.view;
 
 import cs151.controller.StudentProfileController;
 import cs151.controller.ProgrammingLanguageController;
+import cs151.model.DataContext;
+import cs151.model.StudentProfile;
 import cs151.util.UICreator;
 import cs151.util.AppUtils;
 import javafx.application.Platform;
@@ -13,7 +15,7 @@ import java.util.*;
 
 public class EditStudentProfileView {
     private final Stage stage;
-    private final String studentName;
+    private final long studentId;
     private final Runnable backAction;
     private final StudentProfileController studentController;
     private final ProgrammingLanguageController languageController;
@@ -27,27 +29,47 @@ public class EditStudentProfileView {
     private CheckBox whitelist, blacklist;
     private Label errorLabel;
 
-    public EditStudentProfileView(Stage stage, String studentName, Runnable backAction) {
+    public EditStudentProfileView(Stage stage, long studentId, Runnable backAction) {
         this.stage = stage;
-        this.studentName = studentName;
+        this.studentId = studentId;
         this.backAction = backAction;
         this.studentController = new StudentProfileController();
         this.languageController = new ProgrammingLanguageController();
     }
 
     public void view() {
+        VBox loading = UICreator.showLoading(stage, "Edit Student Profile", "Loading student profile...");
+        UICreator.onFxThread(DataContext.supplyAsync(() -> studentController.getStudentProfile(studentId))
+                .thenCombine(DataContext.supplyAsync(languageController::getAllLanguages), FormData::new),
+                form -> {
+                    if (form.profile() == null) {
+                        backAction.run();
+                    } else {
+                        showForm(form.profile(), form.languages());
+                    }
+                },
+                error -> loading.getChildren().setAll(new Label("Failed to load profile: " + error.getMessage())));
+    }
+
+    /**
+     * Everything the form is filled from, loaded off the FX thread.
+     */
+    private record FormData(StudentProfile profile, List<String> languages) {
+    }
+
+    private void showForm(StudentProfile profile, List<String> languages) {
         Label title = UICreator.titleLabel("Edit Student Profile", 30);
         VBox leftCol = UICreator.createFormColumn("");
         double p = 0.9;
 
         // Name field
         nameField = UICreator.textField("Full Name", leftCol, p);
-        nameField.setText(studentController.getStudentFullName(studentName));
+        nameField.setText(profile.fullName());
 
         // Academic Status
         academicStatus = UICreator.createMultiSelectComponent("Academic Status", AppUtils.academicStatus, 3, leftCol,
                 p);
-        String currentAcademicStatus = studentController.getStudentAcademicStatus(studentName);
+        String currentAcademicStatus = profile.academicStatus();
         if (currentAcademicStatus != null) {
             setMultiSelectValues(academicStatus, Set.of(currentAcademicStatus));
         }
@@ -56,7 +78,7 @@ public class EditStudentProfileView {
         HBox employmentBox = UICreator.createEmploymentRadioBox();
         employed = (RadioButton) employmentBox.getChildren().get(0);
         unemployed = (RadioButton) employmentBox.getChildren().get(1);
-        if (studentController.isStudentEmployed(studentName)) {
+        if (profile.employed()) {
             employed.setSelected(true);
         } else {
             unemployed.setSelected(true);
@@ -64,32 +86,26 @@ public class EditStudentProfileView {
 
         // Programming Languages
         languageMenu = UICreator.createMultiSelectComponent("Known Programming Languages",
-                languageController.getAllLanguages(), 3, leftCol, 0.9);
-        List<String> currentLanguages = studentController.getStudentProgrammingLanguages(studentName);
-        if (currentLanguages != null) {
-            setMultiSelectValues(languageMenu, new HashSet<>(currentLanguages));
-        }
+                languages, 3, leftCol, 0.9);
+        setMultiSelectValues(languageMenu, new HashSet<>(profile.programmingLanguages()));
 
         leftCol.getChildren().addAll(nameField, academicStatus, employmentBox, languageMenu);
         VBox rightCol = UICreator.createFormColumn("");
 
         // Job Details
         jobDetails = UICreator.textField("Job Details", rightCol, 0.9);
-        String currentJob = studentController.getStudentJobDetails(studentName);
+        String currentJob = profile.jobDetails();
         jobDetails.setText(currentJob != null ? currentJob : "");
 
         // Known Databases
         knownDatabases = UICreator.createMultiSelectComponent("Known Databases",
                 List.of("MySQL", "Postgres", "MongoDB"), 3, rightCol, 0.9);
-        List<String> currentDatabases = studentController.getStudentDatabasesKnown(studentName);
-        if (currentDatabases != null) {
-            setMultiSelectValues(knownDatabases, new HashSet<>(currentDatabases));
-        }
+        setMultiSelectValues(knownDatabases, new HashSet<>(profile.databasesKnown()));
 
         // Preferred Role
         preferredRole = UICreator.createMultiSelectComponent("Preferred Professional Role", AppUtils.profRole, 3,
                 rightCol, 0.9);
-        String currentRole = studentController.getStudentPreferredRole(studentName);
+        String currentRole = profile.preferredRole();
         if (currentRole != null) {
             setMultiSelectValues(preferredRole, Set.of(currentRole));
         }
@@ -98,8 +114,8 @@ public class EditStudentProfileView {
         HBox whitelistBlacklistBox = UICreator.createWhitelistBlacklistBox();
         whitelist = (CheckBox) whitelistBlacklistBox.getChildren().get(0);
         blacklist = (CheckBox) whitelistBlacklistBox.getChildren().get(1);
-        whitelist.setSelected(studentController.isStudentWhitelisted(studentName));
-        blacklist.setSelected(studentController.isStudentBlacklisted(studentName));
+        whitelist.setSelected(profile.whitelisted());
+        blacklist.setSelected(profile.blacklisted());
 
         rightCol.getChildren().addAll(jobDetails, knownDatabases, preferredRole, whitelistBlacklistBox);
 
@@ -117,7 +133,7 @@ public class EditStudentProfileView {
         buttonBox.getChildren().addAll(saveBtn, backBtn, homeBtn);
         buttonBox.maxWidthProperty().bind(columns.widthProperty());
 
-        saveBtn.setOnAction(e -> saveStudent());
+        saveBtn.setOnAction(e -> saveStudent(saveBtn));
         backBtn.setOnAction(e -> {
             if (backAction != null)
                 backAction.run();
@@ -140,7 +156,7 @@ public class EditStudentProfileView {
         Platform.runLater(applyResponsiveLayout);
     }
 
-    private void saveStudent() {
+    private void saveStudent(Button saveBtn) {
         // Collect form data
         String name = nameField.getText().trim();
         Set<String> academicStatusValues = UICreator.getMultiSelectValues(academicStatus);
@@ -152,26 +168,41 @@ public class EditStudentProfileView {
         Set<String> roleValues = UICreator.getMultiSelectValues(preferredRole);
         String preferredRoleValue = roleValues.isEmpty() ? null : roleValues.iterator().next();
 
-        // Validate
-        String validationError = studentController.validateStudentProfile(name, academicStatusValue,
-            databaseValues, preferredRoleValue, languageValues, employed.isSelected(), unemployed.isSelected(), jobDetailsText, true);
-
-        if (validationError != null) {
-            errorLabel.setText(validationError);
-            errorLabel.setVisible(true);
-            return;
-        }
-
-        // Update student using controller method
-        studentController.updateStudentByName(studentName, name, academicStatusValue,
-                employmentStatus,
-                jobDetailsText.isEmpty() ? null : jobDetailsText,
-                languageValues.isEmpty() ? null : new ArrayList<>(languageValues),
-                databaseValues.isEmpty() ? null : new ArrayList<>(databaseValues),
-                preferredRoleValue, whitelist.isSelected(), blacklist.isSelected());
+        boolean unemploymentStatus = unemployed.isSelected();
+        boolean isWhitelisted = whitelist.isSelected();
+        boolean isBlacklisted = blacklist.isSelected();
+
+        // Validation checks for duplicate names, so it runs with the update off the FX thread
+        saveBtn.setDisable(true);
+        UICreator.onFxThread(DataContext.supplyAsync(() -> {
+            String validationError = studentController.validateStudentProfile(name, academicStatusValue,
+                databaseValues, preferredRoleValue, languageValues, employmentStatus, unemploymentStatus, jobDetailsText,
+                studentId);
+            if (validationError != null) {
+                return validationError;
+            }
 
-        if (backAction != null)
-            backAction.run();
+            // The name is checked again as the student is saved, in case another save took it meanwhile
+            boolean saved = studentController.updateStudentById(studentId, name, academicStatusValue,
+                    employmentStatus,
+                    jobDetailsText.isEmpty() ? null : jobDetailsText,
+                    languageValues.isEmpty() ? null : new ArrayList<>(languageValues),
+                    databaseValues.isEmpty() ? null : new ArrayList<>(databaseValues),
+                    preferredRoleValue, isWhitelisted, isBlacklisted);
+            return saved ? null : StudentProfileController.DUPLICATE_NAME_ERROR;
+        }), validationError -> {
+            saveBtn.setDisable(false);
+            if (validationError != null) {
+                errorLabel.setText(validationError);
+                errorLabel.setVisible(true);
+                return;
+            }
+            if (backAction != null)
+                backAction.run();
+        }, error -> {
+            saveBtn.setDisable(false);
+            UICreator.showError(errorLabel, "Failed to save student profile: " + error.getMessage());
+        });
     }
 
     private void setMultiSelectValues(VBox container, Set<String> values) {
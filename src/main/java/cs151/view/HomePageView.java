@@ -1,20 +1,32 @@
 package cs151.view;
 
+import cs151.controller.ReportController;
 import cs151.controller.SearchController;
+import cs151.model.DataContext;
+import cs151.model.StudentFacets;
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
 import cs151.util.UICreator;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import cs151.util.AppUtils;
 
-import java.util.List;
+import java.util.stream.Collectors;
+
 
 public class HomePageView {
+    // How many of the most common values each facet line lists
+    private static final int TOP_VALUES = 3;
+
     private final Stage stage;
     private final SearchController searchController = new SearchController();
+    private final ReportController reportController = new ReportController();
 
     public HomePageView(Stage stage) {
         this.stage = stage;
@@ -32,7 +44,7 @@ public class HomePageView {
         }
 
         VBox buttonBox = UICreator.createFormColumn(AppUtils.COLOR_BG_REGION);
-        buttonBox.spacingProperty().bind(stage.heightProperty().multiply(0.07));
+        buttonBox.spacingProperty().bind(stage.heightProperty().multiply(0.055));
 
         double p = 0.8;
         Button programmingLanguages = UICreator.button("Define programming language", buttonBox, p, 16);
@@ -41,22 +53,30 @@ public class HomePageView {
         Button students = UICreator.button("Define student profile", buttonBox, p);
         Button allStudents = UICreator.button("All student profiles", buttonBox, p);
         allStudents.setOnAction(e -> {
-            List<String> results = searchController.globalSearch(null);
-            new SearchResultView(stage, results).view();
+            new SearchResultView(stage, searchController::allStudents).view();
         });
 
         Button search = UICreator.button("Search Students Profiles", buttonBox, p);
         Button reports = UICreator.button("Reports", buttonBox, p);
+        Button recentComments = UICreator.button("Recent comments", buttonBox, p);
 
         programmingLanguages.setOnAction(event -> new AddProgrammingLanguageView(stage).view());
         students.setOnAction(event -> new NewStudentProfileView(stage).view());
         allLanguages.setOnAction(event -> new AllAddedProgrammingLanguagesView(stage).view());
         search.setOnAction(event -> new SearchView(stage).view());
         reports.setOnAction(event -> new ReportsView(stage).view());
+        recentComments.setOnAction(event -> new RecentCommentsView(stage).view());
 
-        buttonBox.getChildren().addAll(programmingLanguages, allLanguages, students, allStudents, search, reports);
+        buttonBox.getChildren().addAll(programmingLanguages, allLanguages, students, allStudents, search, reports,
+                recentComments);
 
-        VBox titleBox = UICreator.createStyledVBox(welcome, edVault, logoView);
+        Label facetLabel = new Label("Loading student counts...");
+        facetLabel.setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, 14));
+        facetLabel.setWrapText(true);
+        VBox titleBox = UICreator.createStyledVBox(welcome, edVault, logoView, facetLabel);
+        UICreator.onFxThread(DataContext.supplyAsync(reportController::facets),
+                facets -> facetLabel.setText(facetText(facets)),
+                error -> facetLabel.setText("Student counts unavailable"));
 
         HBox root = UICreator.createTwoColumnLayout(buttonBox, titleBox, 0.55);
         logoView.setFitWidth(200);
@@ -65,4 +85,21 @@ public class HomePageView {
         Runnable applyResponsiveLayout = UICreator.layoutBuilder(root);
         UICreator.createStandardScene(root, "HomePageView", stage, applyResponsiveLayout);
     }
+
+    private String facetText(StudentFacets facets) {
+        return facets.total() + " students, " + facets.count(Flag.EMPLOYED) + " employed, "
+                + facets.countWithout(Flag.EMPLOYED) + " unemployed"
+                + "\nLanguages: " + topValues(facets, Attribute.LANGUAGE)
+                + "\nDatabases: " + topValues(facets, Attribute.DATABASE)
+                + "\nRoles: " + topValues(facets, Attribute.ROLE)
+                + "\nStatus: " + topValues(facets, Attribute.STATUS);
+    }
+
+    private String topValues(StudentFacets facets, Attribute attribute) {
+        String values = facets.valueCounts().get(attribute).stream()
+                .limit(TOP_VALUES)
+                .map(valueCount -> valueCount.value() + " (" + valueCount.count() + ")")
+                .collect(Collectors.joining(", "));
+        return values.isEmpty() ? "none" : values;
+    }
 }
@@ -2,6 +2,7 @@ package cs151.view;
 
 import cs151.controller.StudentProfileController;
 import cs151.controller.ProgrammingLanguageController;
+import cs151.model.DataContext;
 import cs151.util.AppUtils;
 import cs151.util.UICreator;
 import javafx.scene.control.*;
@@ -25,6 +26,12 @@ public class NewStudentProfileView {
     }
 
     public void view() {
+        VBox loading = UICreator.showLoading(stage, "StudentProfileView", "Loading programming languages...");
+        UICreator.onFxThread(DataContext.supplyAsync(languageController::getAllLanguages), this::showForm,
+                error -> loading.getChildren().setAll(new Label("Failed to load languages: " + error.getMessage())));
+    }
+
+    private void showForm(List<String> languages) {
         Label errorLabel = UICreator.createErrorLabel();
         errorLabel.setWrapText(true);
         double p = 0.9;
@@ -39,7 +46,7 @@ public class NewStudentProfileView {
         RadioButton unemployed = (RadioButton) employmentBox.getChildren().get(1);
 
         TextField jobDetails = UICreator.textField("Job Details", leftCol, p);
-        List<String> programmingLanguages = new ArrayList<>(languageController.getAllLanguages());
+        List<String> programmingLanguages = new ArrayList<>(languages);
         VBox knownProgrammingLanguages = UICreator.createMultiSelectComponent("Known Programming Languages",
                 programmingLanguages, 3, leftCol, p);
 
@@ -77,50 +84,57 @@ public class NewStudentProfileView {
             String preferredRoleOption = UICreator.getMenuButtonValue(preferredRole);
             Set<String> selectedLanguages = UICreator.getMultiSelectValues(knownProgrammingLanguages);
 
-            String validationError = studentController.validateStudentProfile(studentName,
-                    academicStatusOption, selectedDatabases, preferredRoleOption, selectedLanguages,
-                    employed.isSelected(), unemployed.isSelected(), jobDetails.getText(), false);
-
-            if (validationError != null) {
-                UICreator.showError(errorLabel, validationError);
-                return;
-            }
-
-            try {
-                boolean isEmployed = employed.isSelected();
-                String jobDetailsVal = jobDetails.getText().trim();
-
-                List<String> progLangs = new ArrayList<>(UICreator.getMultiSelectValues(knownProgrammingLanguages));
-
-                // Get all selected databases
-                List<String> dbs = new ArrayList<>(UICreator.getMultiSelectValues(knownDatabases));
-
-                String preferredRoleVal = UICreator.getMenuButtonValue(preferredRole);
-                boolean isWhitelisted = whitelist.isSelected();
-                boolean isBlacklisted = blacklist.isSelected();
-                String commentText = comments.getText().trim();
-
-                // Use controller method to create and add student
-                studentController.createAndAddStudent(
+            boolean isEmployed = employed.isSelected();
+            boolean isUnemployed = unemployed.isSelected();
+            String jobDetailsText = jobDetails.getText();
+            String jobDetailsVal = jobDetailsText.trim();
+
+            List<String> progLangs = new ArrayList<>(selectedLanguages);
+
+            // Get all selected databases
+            List<String> dbs = new ArrayList<>(selectedDatabases);
+
+            boolean isWhitelisted = whitelist.isSelected();
+            boolean isBlacklisted = blacklist.isSelected();
+            String commentText = comments.getText().trim();
+
+            // The duplicate-name check and the save both read the stored students, so they run off the FX thread
+            submit.setDisable(true);
+            UICreator.onFxThread(DataContext.supplyAsync(() -> {
+                String validationError = studentController.validateStudentProfile(studentName,
+                        academicStatusOption, selectedDatabases, preferredRoleOption, selectedLanguages,
+                        isEmployed, isUnemployed, jobDetailsText, 0);
+                if (validationError != null) {
+                    return validationError;
+                }
+                // The name is checked again as the student is added, in case another save took it meanwhile
+                long studentId = studentController.createAndAddStudent(
                         studentName,
                         academicStatusOption,
                         isEmployed,
                         jobDetailsVal.isEmpty() ? null : jobDetailsVal,
                         progLangs.isEmpty() ? null : progLangs,
                         dbs.isEmpty() ? null : dbs,
-                        preferredRoleVal,
+                        preferredRoleOption,
                         commentText.isEmpty() ? null : commentText,
                         isWhitelisted,
                         isBlacklisted);
-
+                return studentId != 0 ? null : StudentProfileController.DUPLICATE_NAME_ERROR;
+            }), validationError -> {
+                submit.setDisable(false);
+                if (validationError != null) {
+                    UICreator.showError(errorLabel, validationError);
+                    return;
+                }
                 Alert alert = new Alert(Alert.AlertType.INFORMATION, "Student profile saved!", ButtonType.OK);
                 alert.showAndWait();
 
                 new HomePageView(stage).view();
-            } catch (Exception ex) {
+            }, ex -> {
+                submit.setDisable(false);
                 System.err.println("Error creating new student profile: " + ex.getMessage());
                 UICreator.showError(errorLabel, "Failed to save student profile: " + ex.getMessage());
-            }
+            });
         });
 
         VBox formBox = UICreator.createStyledVBox(title, columns, buttonBox, errorLabel);
@@ -2,6 +2,8 @@ package cs151.view;
 
 import cs151.controller.CommentController;
 import cs151.controller.StudentProfileController;
+import cs151.model.DataContext;
+import cs151.model.StudentProfile;
 import cs151.util.UICreator;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
@@ -14,6 +16,7 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TextArea;
 import javafx.geometry.Insets;
+import javafx.scene.Cursor;
 import javafx.scene.Scene;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -27,25 +30,49 @@ import java.util.Map;
 import java.util.Objects;
 
 public class OneStudentProfileView {
+    // Newest comments listed in the popup; the comments view pages through the rest
+    private static final int POPUP_COMMENTS = 100;
+
     private final Stage stage;
-    private final String studentName;
-    private final CommentController commentController;
+    private final long studentId;
     private final StudentProfileController studentController;
+    private final CommentController commentController = new CommentController();
 
-    public OneStudentProfileView(Stage stage, String studentName) {
+    public OneStudentProfileView(Stage stage, long studentId) {
         this.stage = stage;
-        this.studentName = studentName;
-        this.commentController = new CommentController();
+        this.studentId = studentId;
         this.studentController = new StudentProfileController();
     }
 
     public void view() {
+        // The owner window shows a wait cursor until the profile has been read
+        Scene owner = stage.getScene();
+        if (owner != null) {
+            owner.setCursor(Cursor.WAIT);
+        }
+        UICreator.onFxThread(DataContext.supplyAsync(() -> studentController.getStudentProfile(studentId)),
+                profile -> {
+                    if (owner != null) {
+                        owner.setCursor(Cursor.DEFAULT);
+                    }
+                    if (profile != null) {
+                        showPopup(profile);
+                    }
+                }, error -> {
+                    if (owner != null) {
+                        owner.setCursor(Cursor.DEFAULT);
+                    }
+                    System.err.println("Error loading student profile: " + error.getMessage());
+                });
+    }
+
+    private void showPopup(StudentProfile profile) {
         Stage popup = new Stage();
         popup.initOwner(stage);
         popup.initModality(Modality.WINDOW_MODAL);
 
         Label title = UICreator.titleLabel("Student Details", 28);
-        VBox contentBox = createStudentDetailsBox(popup);
+        VBox contentBox = createStudentDetailsBox(popup, profile);
         ScrollPane scrollPane = UICreator.basicScrollPane(contentBox);
         scrollPane.setPrefViewportHeight(500);
         scrollPane.setPrefViewportWidth(640);
@@ -61,12 +88,12 @@ public class OneStudentProfileView {
         popup.showAndWait();
     }
 
-    private VBox createStudentDetailsBox(Stage popupOwner) {
+    private VBox createStudentDetailsBox(Stage popupOwner, StudentProfile profile) {
         VBox contentBox = new VBox(12);
         contentBox.setPadding(new Insets(8));
         GridPane form = new GridPane();
         int row = 0;
-        for (Map.Entry<String, String> entry : buildFieldMap().entrySet()) {
+        for (Map.Entry<String, String> entry : buildFieldMap(profile).entrySet()) {
             Label nameLabel = new Label(entry.getKey() + ":");
 
             Label valueLabel = new Label(safe(entry.getValue()));
@@ -93,18 +120,28 @@ public class OneStudentProfileView {
             }
         });
 
-        List<String> commentTexts = commentController.getStudentCommentTexts(studentName);
-        List<String> commentDates = commentController.getStudentCommentDates(studentName);
         ObservableList<Pair<String, String>> rows = FXCollections.observableArrayList();
-        if (commentTexts != null) {
-            for (int i = 0; i < commentTexts.size(); i++) {
-                String date = (commentDates != null && i < commentDates.size()) ? commentDates.get(i) : "";
-                rows.add(new Pair<>(date, safe(commentTexts.get(i))));
-            }
-        }
-
         TableView<Pair<String, String>> table = UICreator.tableView(rows, dateCol, commentCol);
         table.setPrefHeight(220);
+        Label commentsLabel = new Label("Comments (" + profile.commentCount() + "), newest first:");
+        if (profile.commentCount() > 0) {
+            // Comment texts are only read now that they are about to be shown
+            table.setPlaceholder(UICreator.loadingBox("Loading comments..."));
+            UICreator.onFxThread(DataContext.supplyAsync(
+                    () -> commentController.commentPages(studentId).load(null, POPUP_COMMENTS)), page -> {
+                        for (StudentProfile.CommentEntry comment : page.items()) {
+                            String date = comment.createdAt() != null ? comment.createdAt().toString() : "";
+                            rows.add(new Pair<>(date, safe(comment.text())));
+                        }
+                        if (page.hasMore()) {
+                            commentsLabel.setText("Newest " + page.items().size() + " of " + page.total()
+                                    + " comments:");
+                        }
+                        table.setPlaceholder(new Label("No comments"));
+                    }, error -> table.setPlaceholder(new Label("Failed to load comments: " + error.getMessage())));
+        } else {
+            table.setPlaceholder(new Label("No comments"));
+        }
 
         table.setRowFactory(tv -> {
             TableRow<Pair<String, String>> tableRow = new TableRow<>();
@@ -130,7 +167,7 @@ public class OneStudentProfileView {
             return tableRow;
         });
 
-        contentBox.getChildren().addAll(form, table);
+        contentBox.getChildren().addAll(form, commentsLabel, table);
         return contentBox;
     }
 
@@ -154,17 +191,17 @@ public class OneStudentProfileView {
         return items == null ? "" : String.join(", ", items.stream().filter(Objects::nonNull).toList());
     }
 
-    private Map<String, String> buildFieldMap() {
+    private Map<String, String> buildFieldMap(StudentProfile profile) {
         Map<String, String> fields = new LinkedHashMap<>();
-        fields.put("Full Name", safe(studentController.getStudentFullName(studentName)));
-        fields.put("Academic Status", safe(studentController.getStudentAcademicStatus(studentName)));
-        fields.put("Employed", yesNo(studentController.isStudentEmployed(studentName)));
-        fields.put("Job Details", safe(studentController.getStudentJobDetails(studentName)));
-        fields.put("Programming Languages", join(studentController.getStudentProgrammingLanguages(studentName)));
-        fields.put("Databases Known", join(studentController.getStudentDatabasesKnown(studentName)));
-        fields.put("Preferred Role", safe(studentController.getStudentPreferredRole(studentName)));
-        fields.put("Whitelisted", yesNo(studentController.isStudentWhitelisted(studentName)));
-        fields.put("Blacklisted", yesNo(studentController.isStudentBlacklisted(studentName)));
+        fields.put("Full Name", safe(profile.fullName()));
+        fields.put("Academic Status", safe(profile.academicStatus()));
+        fields.put("Employed", yesNo(profile.employed()));
+        fields.put("Job Details", safe(profile.jobDetails()));
+        fields.put("Programming Languages", join(profile.programmingLanguages()));
+        fields.put("Databases Known", join(profile.databasesKnown()));
+        fields.put("Preferred Role", safe(profile.preferredRole()));
+        fields.put("Whitelisted", yesNo(profile.whitelisted()));
+        fields.put("Blacklisted", yesNo(profile.blacklisted()));
         return fields;
     }
 }
@@ -0,0 +1,136 @@
+package cs151.view;
+
+import cs151.model.DataContext;
+import cs151.model.Page;
+import cs151.util.AppUtils;
+import cs151.util.UICreator;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A ListView that fetches its items a page at a time in the background.
+ * Only the visible items get cells, and showing an item near the end of
+ * what is loaded fetches the next page, which also keeps fetching until a
+ * short list fills the viewport.
+ *
+ * @param <T> the type of items in the list
+ */
+class PagedList<T> {
+    // Items fetched per page as the list scrolls
+    private static final int PAGE_SIZE = 50;
+    // How close to the last loaded item a shown cell has to be before the next page is fetched
+    private static final int LOAD_AHEAD = 10;
+
+    private final Page.Loader<T> loader;
+    private final Function<T, String> format;
+    private final String itemsName;
+    private final ListView<T> listView;
+    private String nextCursor;
+    // Whether a page is being fetched, so scrolling does not request the same page twice
+    private boolean loading;
+
+    /**
+     * Creates a list that shows a loading placeholder until {@link #load} is called.
+     *
+     * @param loader    loads the pages of items
+     * @param format    the text shown for an item, wrapped to the list's width
+     * @param itemsName what the items are called in the placeholders, such as "comments"
+     */
+    PagedList(Page.Loader<T> loader, Function<T, String> format, String itemsName) {
+        this.loader = loader;
+        this.format = format;
+        this.itemsName = itemsName;
+        this.listView = UICreator.listView();
+        listView.setPrefSize(640, 500);
+        listView.setPlaceholder(UICreator.loadingBox("Loading " + itemsName + "..."));
+        listView.setCellFactory(list -> new PagedCell());
+    }
+
+    /**
+     * Gets the list to add to a layout.
+     *
+     * @return the ListView
+     */
+    ListView<T> listView() {
+        return listView;
+    }
+
+    /**
+     * Fetches the first page in the background and shows it.
+     *
+     * @param onFirstPage receives the first page once it is shown, on the JavaFX Application Thread
+     */
+    void load(Consumer<Page<T>> onFirstPage) {
+        loading = true;
+        UICreator.onFxThread(DataContext.supplyAsync(() -> loader.load(null, PAGE_SIZE)), firstPage -> {
+            loading = false;
+            listView.setPlaceholder(label("No " + itemsName + " yet"));
+            listView.getItems().setAll(firstPage.items());
+            nextCursor = firstPage.nextCursor();
+            onFirstPage.accept(firstPage);
+        }, error -> {
+            loading = false;
+            listView.setPlaceholder(label("Failed to load " + itemsName + ": " + error.getMessage()));
+        });
+    }
+
+    /**
+     * Fetches the next page in the background and appends it to the list, if
+     * there is one and no page is already being fetched.
+     */
+    private void loadNextPage() {
+        if (nextCursor == null || loading) {
+            return;
+        }
+        loading = true;
+        String cursor = nextCursor;
+        UICreator.onFxThread(DataContext.supplyAsync(() -> loader.load(cursor, PAGE_SIZE)), page -> {
+            loading = false;
+            nextCursor = page.nextCursor();
+            listView.getItems().addAll(page.items());
+        }, error -> {
+            loading = false;
+            System.err.println("Error loading more " + itemsName + ": " + error.getMessage());
+        });
+    }
+
+    private static Label label(String text) {
+        Label label = new Label(text);
+        label.setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, AppUtils.DEFAULT_FONT_SIZE));
+        label.setWrapText(true);
+        return label;
+    }
+
+    /**
+     * Shows one item as wrapped text, and fetches the next page once the end
+     * of what is loaded comes into view.
+     */
+    private class PagedCell extends ListCell<T> {
+        PagedCell() {
+            setWrapText(true);
+            setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, AppUtils.DEFAULT_FONT_SIZE));
+            // Leave room for the scroll bar so wrapped text is never cut off
+            prefWidthProperty().bind(listView.widthProperty().subtract(24));
+            setMaxWidth(USE_PREF_SIZE);
+        }
+
+        @Override
+        protected void updateItem(T item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText(null);
+                return;
+            }
+            setText(format.apply(item));
+            if (getIndex() >= listView.getItems().size() - LOAD_AHEAD) {
+                loadNextPage();
+            }
+        }
+    }
+}
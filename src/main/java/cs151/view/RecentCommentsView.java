@@ -0,0 +1,71 @@
+package cs151.view;
+
+import cs151.controller.CommentController;
+import cs151.model.RecentComment;
+import cs151.util.AppUtils;
+import cs151.util.UICreator;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public class RecentCommentsView {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.systemDefault());
+
+    private final Stage stage;
+    private final CommentController commentController;
+
+    public RecentCommentsView(Stage stage) {
+        this.stage = stage;
+        this.commentController = new CommentController();
+    }
+
+    public void view() {
+        Label title = UICreator.titleLabel("Recent Comments", 28);
+        Label countLabel = createLabel("Newest comments across all students:");
+
+        // The feed is paged, so it can be scrolled back through every comment
+        PagedList<RecentComment> feed = new PagedList<>(commentController.recentComments(),
+                comment -> safe(comment.studentName()) + " (" + TIME_FORMAT.format(comment.createdAt()) + ")\n"
+                        + safe(comment.text()),
+                "comments");
+        ListView<RecentComment> commentList = feed.listView();
+        commentList.setOnMouseClicked(e -> {
+            RecentComment selected = commentList.getSelectionModel().getSelectedItem();
+            if (e.getClickCount() == 2 && selected != null) {
+                new OneStudentProfileView(stage, selected.studentId()).view();
+            }
+        });
+
+        HBox buttonBox = UICreator.createNavigationButtonBox();
+        Button homeBtn = UICreator.button("Home Page", buttonBox, 0.3);
+        homeBtn.setOnAction(e -> new HomePageView(stage).view());
+        buttonBox.getChildren().add(homeBtn);
+
+        VBox root = UICreator.createStyledVBox(title, countLabel, commentList, buttonBox);
+        Runnable applyResponsiveLayout = UICreator.layoutBuilder(root);
+        UICreator.createStandardScene(root, "Recent Comments", stage, applyResponsiveLayout);
+
+        feed.load(firstPage -> countLabel.setText("Newest of " + firstPage.total() + " comments across all students "
+                + "(double-click one to open the student):"));
+    }
+
+    private Label createLabel(String text) {
+        Label label = new Label(text);
+        label.setFont(Font.font(AppUtils.FONT_FAMILY, FontWeight.NORMAL, AppUtils.DEFAULT_FONT_SIZE));
+        label.setWrapText(true);
+        return label;
+    }
+
+    private String safe(String s) {
+        return s == null ? "" : s;
+    }
+}
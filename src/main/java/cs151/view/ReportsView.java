@@ -1,17 +1,30 @@
 package cs151.view;
 
-import cs151.controller.SearchController;
+import cs151.controller.ReportController;
+import cs151.model.DataContext;
+import cs151.model.StudentFacets;
+import cs151.model.StudentReport;
+import cs151.model.StudentReport.ValueCount;
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
 import cs151.util.UICreator;
 import javafx.application.Platform;
 import cs151.util.AppUtils;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class ReportsView {
     private final Stage stage;
-    private final SearchController searchController = new SearchController();
+    private final ReportController reportController = new ReportController();
 
     public ReportsView(Stage stage) {
         this.stage = stage;
@@ -19,6 +32,10 @@ public class ReportsView {
 
     public void view() {
         Label title = UICreator.titleLabel("Whitelist/Blacklist Reports", 30);
+        Label summary = createLabel("Loading student counts...", FontWeight.BOLD);
+        UICreator.onFxThread(DataContext.supplyAsync(reportController::facets),
+                facets -> summary.setText(summaryText(facets)),
+                error -> summary.setText("Student counts unavailable"));
 
         VBox topSection = UICreator.createFormColumn("");
 
@@ -26,13 +43,17 @@ public class ReportsView {
         CheckBox whitelist = (CheckBox) whitelistBlacklistBox.getChildren().get(0);
         CheckBox blacklist = (CheckBox) whitelistBlacklistBox.getChildren().get(1);
 
+        VBox breakdownBox = new VBox(8, UICreator.loadingBox("Loading report..."));
+        ScrollPane breakdownPane = UICreator.basicScrollPane(breakdownBox);
+        breakdownPane.setPrefViewportHeight(260);
+
         VBox searchBox = UICreator.createFormColumn("");
-        searchBox.getChildren().addAll(whitelistBlacklistBox);
-        topSection.getChildren().addAll(title, searchBox);
+        searchBox.getChildren().addAll(whitelistBlacklistBox, breakdownPane);
+        topSection.getChildren().addAll(title, summary, searchBox);
 
         HBox buttonBox = UICreator.createNavigationButtonBox();
         double p = 0.5;
-        Button searchBtn = UICreator.button("Search", buttonBox, p);
+        Button searchBtn = UICreator.button("Show Students", buttonBox, p);
         Button homeBtn = UICreator.button("Home Page", buttonBox, p);
         buttonBox.getChildren().addAll(searchBtn, homeBtn);
 
@@ -51,22 +72,86 @@ public class ReportsView {
         UICreator.createStandardScene(root, "Search Student", stage, applyResponsiveLayout);
         Platform.runLater(applyResponsiveLayout);
 
+        // Reports come straight from the flag bitmaps, so they are rebuilt on every change of selection;
+        // a report is only shown if the selection has not changed again while it was built
+        Runnable showReport = () -> {
+            Set<Flag> flags = selectedFlags(whitelist, blacklist);
+            UICreator.onFxThread(DataContext.supplyAsync(() -> reportController.report(flags)), report -> {
+                if (report.flags().equals(selectedFlags(whitelist, blacklist))) {
+                    showBreakdowns(breakdownBox, report);
+                }
+            }, error -> breakdownBox.getChildren().setAll(
+                    createLabel("Failed to build report: " + error.getMessage(), FontWeight.NORMAL)));
+        };
+        whitelist.selectedProperty().addListener((obs, was, isSelected) -> showReport.run());
+        blacklist.selectedProperty().addListener((obs, was, isSelected) -> showReport.run());
+        showReport.run();
+
         homeBtn.setOnAction(e -> new HomePageView(stage).view());
         searchBtn.setOnAction(e -> {
-            String searchTerm = "";
-            boolean wSelected = whitelist.isSelected();
-            boolean bSelected = blacklist.isSelected();
-
-            if (wSelected && !bSelected) {
-                searchTerm = whitelist.getText();
-            } else if (bSelected && !wSelected) {
-                searchTerm = blacklist.getText();
-            } else if (wSelected && bSelected) {
-                searchTerm = whitelist.getText() + "," + blacklist.getText();
-            }
-
-            List<String> results = searchController.globalSearch(searchTerm);
-            new SearchResultView(stage, results).view();
+            Set<Flag> flags = selectedFlags(whitelist, blacklist);
+            searchBtn.setDisable(true);
+            UICreator.onFxThread(DataContext.supplyAsync(() -> reportController.report(flags)), report -> {
+                searchBtn.setDisable(false);
+                new SearchResultView(stage, reportController.members(report)).view();
+            }, error -> {
+                searchBtn.setDisable(false);
+                System.err.println("Error building report: " + error.getMessage());
+            });
         });
     }
+
+    private String summaryText(StudentFacets facets) {
+        return "Whitelisted: " + facets.count(Flag.WHITELISTED)
+                + "   Blacklisted: " + facets.count(Flag.BLACKLISTED)
+                + "   Employed: " + facets.count(Flag.EMPLOYED)
+                + "   Unemployed: " + facets.countWithout(Flag.EMPLOYED);
+    }
+
+    /**
+     * Gets the flags whose lists are selected: one flag per checked list, so
+     * checking both reports on the students on either list, and checking
+     * neither gives an empty set, which reports on every student.
+     */
+    private Set<Flag> selectedFlags(CheckBox whitelist, CheckBox blacklist) {
+        Set<Flag> flags = EnumSet.noneOf(Flag.class);
+        if (whitelist.isSelected()) {
+            flags.add(Flag.WHITELISTED);
+        }
+        if (blacklist.isSelected()) {
+            flags.add(Flag.BLACKLISTED);
+        }
+        return flags;
+    }
+
+    private void showBreakdowns(VBox breakdownBox, StudentReport report) {
+        String list = report.flags().isEmpty() ? "All students"
+                : report.flags().size() > 1 ? "Whitelisted or blacklisted students"
+                : report.flags().contains(Flag.WHITELISTED) ? "Whitelisted students" : "Blacklisted students";
+        breakdownBox.getChildren().setAll(createLabel(list + ": " + report.count(), FontWeight.BOLD));
+        for (Map.Entry<Attribute, List<ValueCount>> entry : report.breakdowns().entrySet()) {
+            String counts = entry.getValue().isEmpty() ? "none"
+                    : entry.getValue().stream()
+                            .map(valueCount -> valueCount.value() + " (" + valueCount.count() + ")")
+                            .collect(Collectors.joining(", "));
+            breakdownBox.getChildren().add(createLabel("By " + attributeName(entry.getKey()) + ": " + counts,
+                    FontWeight.NORMAL));
+        }
+    }
+
+    private String attributeName(Attribute attribute) {
+        return switch (attribute) {
+            case STATUS -> "academic status";
+            case ROLE -> "preferred role";
+            case LANGUAGE -> "programming language";
+            case DATABASE -> "database";
+        };
+    }
+
+    private Label createLabel(String text, FontWeight weight) {
+        Label label = new Label(text);
+        label.setFont(Font.font(AppUtils.FONT_FAMILY, weight, AppUtils.DEFAULT_FONT_SIZE));
+        label.setWrapText(true);
+        return label;
+    }
 }
@@ -1,23 +1,39 @@
 package cs151.view;
 
+import cs151.controller.SearchController;
 import cs151.controller.StudentProfileController;
+import cs151.model.DataContext;
+import cs151.model.Page;
+import cs151.model.StudentRow;
 import cs151.util.UICreator;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class SearchResultView {
+    // Rows fetched per page as the table scrolls
+    private static final int PAGE_SIZE = 50;
+    // How far down the scroll bar has to be before the next page is fetched
+    private static final double LOAD_THRESHOLD = 0.9;
+
     private final Stage stage;
-    private final List<String> searchResults;
+    private final Page.Loader<StudentRow> searchResults;
+    private String nextCursor;
+    private int total;
+    // Whether a page is being fetched, so scrolling does not request the same page twice
+    private boolean loading;
 
-    public SearchResultView(Stage stage, List<String> searchResults) {
+    public SearchResultView(Stage stage, Page.Loader<StudentRow> searchResults) {
         this.stage = stage;
         this.searchResults = searchResults;
     }
@@ -27,14 +43,26 @@ public class SearchResultView {
         HBox navRow = UICreator.createNavigationButtonBox();
         double p = 0.18;
 
-        TableColumn<String, String> nameCol = new TableColumn<>("Name");
-        nameCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()));
-
-        TableView<String> table = UICreator.tableView(searchResults, nameCol);
-
-        if (searchResults.isEmpty()) {
-            table.setPlaceholder(new Label("No students with this search criteria"));
-        }
+        StudentProfileController controller = new StudentProfileController();
+        // Coming back from a follow-up screen loads the students again, with their current data
+        Runnable back = () -> new SearchResultView(stage, searchResults).view();
+
+        TableColumn<StudentRow, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().fullName()));
+        TableColumn<StudentRow, String> statusCol = new TableColumn<>("Status");
+        statusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().academicStatus()));
+        TableColumn<StudentRow, String> employedCol = new TableColumn<>("Employed");
+        employedCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().employed() ? "Yes" : "No"));
+        TableColumn<StudentRow, String> languagesCol = new TableColumn<>("Languages");
+        languagesCol.setCellValueFactory(data -> new SimpleStringProperty(
+                String.valueOf(data.getValue().languageCount())));
+        TableColumn<StudentRow, String> listCol = new TableColumn<>("List");
+        listCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().whitelisted() ? "Whitelist" : data.getValue().blacklisted() ? "Blacklist" : ""));
+
+        TableView<StudentRow> table = UICreator.tableView(null, nameCol, statusCol, employedCol,
+                languagesCol, listCol);
+        table.setPlaceholder(UICreator.loadingBox("Loading students..."));
 
         Button deleteBtn = UICreator.button("Delete", editRow, p);
         Button editBtn = UICreator.button("Edit", editRow, p);
@@ -49,55 +77,54 @@ public class SearchResultView {
             allCommentsBtn.setDisable(noSelection);
         });
 
-        StudentProfileController controller = new StudentProfileController();
+        Label title = UICreator.titleLabel("Search Results (loading...)", 28);
 
         deleteBtn.setOnAction(e -> {
-            String selectedName = table.getSelectionModel().getSelectedItem();
-            if (selectedName != null) {
-                try {
-                    controller.deleteStudent(selectedName);
-                    table.getItems().remove(selectedName);
-                } catch (Exception ex) {
+            StudentRow selected = table.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                deleteBtn.setDisable(true);
+                UICreator.onFxThread(DataContext.runAsync(() -> controller.deleteStudent(selected.id())), done -> {
+                    table.getItems().remove(selected);
+                    total--;
+                    title.setText(titleText());
+                    deleteBtn.setDisable(table.getSelectionModel().getSelectedItem() == null);
+                }, ex -> {
+                    deleteBtn.setDisable(false);
                     System.err.println("Error deleting student from search results: " + ex.getMessage());
-                }
+                });
             }
         });
 
         editBtn.setOnAction(e -> {
-            String selectedName = table.getSelectionModel().getSelectedItem();
-            if (selectedName != null) {
-                new EditStudentProfileView(stage, selectedName, () -> new SearchResultView(stage, searchResults).view())
-                        .view();
+            StudentRow selected = table.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                new EditStudentProfileView(stage, selected.id(), back).view();
             }
         });
 
         addCommentBtn.setOnAction(e -> {
-            String selectedName = table.getSelectionModel().getSelectedItem();
-            if (selectedName != null) {
-                new AddCommentView(stage, selectedName, () -> new SearchResultView(stage, searchResults).view()).view();
+            StudentRow selected = table.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                new AddCommentView(stage, selected.id(), back).view();
             }
         });
 
         allCommentsBtn.setOnAction(e -> {
-            String selectedName = table.getSelectionModel().getSelectedItem();
-            if (selectedName != null) {
-                new AllCommentsView(stage, selectedName,
-                        () -> new SearchResultView(stage, searchResults).view()).view();
+            StudentRow selected = table.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                new AllCommentsView(stage, selected.id(), back).view();
             }
         });
 
         table.setOnMouseClicked(e -> {
             if (e.getClickCount() == 2) {
-                String selectedName = table.getSelectionModel().getSelectedItem();
-                if (selectedName != null) {
-                    new OneStudentProfileView(stage, selectedName).view();
+                StudentRow selected = table.getSelectionModel().getSelectedItem();
+                if (selected != null) {
+                    new OneStudentProfileView(stage, selected.id()).view();
                 }
             }
         });
 
-        String titleText = "Search Results (" + searchResults.size() + " found)";
-        Label title = UICreator.titleLabel(titleText, 28);
-
         Button homeBtn = UICreator.button("Home Page", navRow, 0.8);
         homeBtn.setOnAction(e -> new HomePageView(stage).view());
 
@@ -109,5 +136,81 @@ public class SearchResultView {
         Scene scene = UICreator.createStandardScene(root, "Search Results", stage, applyResponsiveLayout);
 
         UICreator.addDeselectHandler(scene, table);
+
+        loading = true;
+        UICreator.onFxThread(DataContext.supplyAsync(() -> searchResults.load(null, PAGE_SIZE)), firstPage -> {
+            loading = false;
+            table.setPlaceholder(new Label("No students with this search criteria"));
+            table.getItems().setAll(firstPage.items());
+            nextCursor = firstPage.nextCursor();
+            total = firstPage.total();
+            title.setText(titleText());
+            // The table's scroll bar only exists once the table has been laid out
+            Platform.runLater(() -> watchScrolling(table));
+        }, error -> {
+            loading = false;
+            table.setPlaceholder(new Label("Failed to load students: " + error.getMessage()));
+            title.setText("Search Results");
+        });
+    }
+
+    private String titleText() {
+        return "Search Results (" + total + " found)";
+    }
+
+    /**
+     * Loads the next page whenever the table is scrolled near its end.
+     *
+     * @param table the result table
+     */
+    private void watchScrolling(TableView<StudentRow> table) {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= bar.getMax() * LOAD_THRESHOLD) {
+                        loadNextPage(table, () -> { });
+                    }
+                });
+                fillTable(table, bar);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps loading pages while the loaded rows are too few to scroll.
+     *
+     * @param table the result table
+     * @param bar   the table's vertical scroll bar
+     */
+    private void fillTable(TableView<StudentRow> table, ScrollBar bar) {
+        if (!bar.isVisible() && nextCursor != null) {
+            // Check again once the new rows have been laid out
+            loadNextPage(table, () -> Platform.runLater(() -> fillTable(table, bar)));
+        }
+    }
+
+    /**
+     * Fetches the next page of results in the background and appends it to
+     * the table, if there is one and no page is already being fetched.
+     *
+     * @param table  the result table
+     * @param loaded runs on the FX thread once the page has been appended
+     */
+    private void loadNextPage(TableView<StudentRow> table, Runnable loaded) {
+        if (nextCursor == null || loading) {
+            return;
+        }
+        loading = true;
+        String cursor = nextCursor;
+        UICreator.onFxThread(DataContext.supplyAsync(() -> searchResults.load(cursor, PAGE_SIZE)), page -> {
+            loading = false;
+            nextCursor = page.nextCursor();
+            table.getItems().addAll(page.items());
+            loaded.run();
+        }, error -> {
+            loading = false;
+            System.err.println("Error loading more search results: " + error.getMessage());
+        });
     }
 }
@@ -1,18 +1,40 @@
 package cs151.view;
 
 import cs151.controller.SearchController;
+import cs151.controller.SearchController.SearchResult;
+import cs151.model.DataContext;
+import cs151.model.StudentRow;
 import cs151.util.UICreator;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import cs151.util.AppUtils;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
-import java.util.List;
+import javafx.util.Duration;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class SearchView {
+    // How long typing has to pause before the query runs
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(250);
+    // How many students a relevance-ranked search shows
+    private static final int RANKED_LIMIT = 50;
+
     private final Stage stage;
     private final SearchController searchController = new SearchController();
 
+    // The fields below are only touched on the JavaFX Application Thread
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+    private Future<?> inFlight;
+    private long generation;
+    private String lastQuery;
+    private boolean lastRanked;
+    private SearchResult lastResult;
+
     public SearchView(Stage stage) {
         this.stage = stage;
     }
@@ -21,10 +43,20 @@ public class SearchView {
         Label title = UICreator.titleLabel("Search Student", 30);
 
         VBox topSection = UICreator.createFormColumn("");
-        TextArea searchArea = UICreator.textArea("Search term", topSection, 0.8, 130);
+        TextArea searchArea = UICreator.textArea(
+                "Search text or query, e.g. lang:Java db:MySQL status:Senior -is:blacklisted name:\"ann*\"",
+                topSection, 0.8, 130);
+        Label errorLabel = UICreator.createErrorLabel();
+        Label countLabel = new Label("");
+        CheckBox rankedBox = UICreator.checkBox("Best " + RANKED_LIMIT + " matches by relevance");
+
+        TableColumn<StudentRow, String> nameCol = new TableColumn<>("Matching students");
+        nameCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().fullName()));
+        TableView<StudentRow> previewTable = UICreator.tableView(null, nameCol);
+        previewTable.setPlaceholder(new Label("No students with this search criteria"));
 
         VBox searchBox = UICreator.createFormColumn("");
-        searchBox.getChildren().addAll(searchArea);
+        searchBox.getChildren().addAll(searchArea, rankedBox, errorLabel, countLabel, previewTable);
         topSection.getChildren().addAll(title, searchBox);
 
         HBox buttonBox = UICreator.createNavigationButtonBox();
@@ -48,11 +80,96 @@ public class SearchView {
         UICreator.createStandardScene(root, "Search Student", stage, applyResponsiveLayout);
         Platform.runLater(applyResponsiveLayout);
 
-        homeBtn.setOnAction(e -> new HomePageView(stage).view());
+        Consumer<SearchResult> showPreview = result -> {
+            UICreator.hideError(errorLabel);
+            countLabel.setText(result.suggestions().isEmpty()
+                    ? result.matches().cardinality() + " matching students"
+                    : "No matches. Did you mean: " + String.join(", ", result.suggestions()) + "?");
+            previewTable.getItems().setAll(result.firstPage().items());
+        };
+        Consumer<String> showInvalid = message -> {
+            UICreator.showError(errorLabel, "Invalid search: " + message);
+            countLabel.setText("");
+        };
+        Consumer<Throwable> showFailed = error -> {
+            System.err.println("Search failed: " + error);
+            UICreator.showError(errorLabel, "Search failed: " + error.getMessage());
+            countLabel.setText("");
+        };
+
+        searchArea.textProperty().addListener((obs, oldText, newText) -> debounce.playFromStart());
+        rankedBox.selectedProperty().addListener((obs, oldValue, newValue) -> debounce.playFromStart());
+        debounce.setOnFinished(e -> runSearch(searchArea.getText(), rankedBox.isSelected(), showPreview, showInvalid,
+                showFailed));
+        runSearch("", false, showPreview, showInvalid, showFailed);
+
+        homeBtn.setOnAction(e -> {
+            cancelSearch();
+            new HomePageView(stage).view();
+        });
         searchBtn.setOnAction(e -> {
-            String searchTerm = searchArea.getText();
-            List<String> results = searchController.globalSearch(searchTerm);
-            new SearchResultView(stage, results).view();
+            String query = searchArea.getText();
+            boolean ranked = rankedBox.isSelected();
+            if (query.equals(lastQuery) && ranked == lastRanked && (inFlight == null || inFlight.isDone())) {
+                new SearchResultView(stage, searchController.pages(lastResult)).view();
+                return;
+            }
+            runSearch(query, ranked, result -> new SearchResultView(stage, searchController.pages(result)).view(),
+                    showInvalid, showFailed);
+        });
+    }
+
+    /**
+     * Runs a query on the search executor, cancelling any query still in
+     * flight. Only the newest query's outcome is delivered, on the JavaFX
+     * Application Thread. A query that refines the previous one searches
+     * within the previous results.
+     *
+     * @param query     the query text
+     * @param ranked    whether to show only the most relevant matches
+     * @param onResult  receives the results
+     * @param onInvalid receives the parse error if the query is malformed
+     * @param onFailure receives any other error the search ran into
+     */
+    private void runSearch(String query, boolean ranked, Consumer<SearchResult> onResult,
+            Consumer<String> onInvalid, Consumer<Throwable> onFailure) {
+        cancelSearch();
+        long current = ++generation;
+        SearchResult previous = lastResult;
+        inFlight = DataContext.get().searchExecutor().submit(() -> {
+            try {
+                SearchResult result = searchController.search(query, previous, ranked ? RANKED_LIMIT : 0);
+                Platform.runLater(() -> {
+                    if (current == generation) {
+                        lastQuery = query;
+                        lastRanked = ranked;
+                        lastResult = result;
+                        onResult.accept(result);
+                    }
+                });
+            } catch (CancellationException ignored) {
+                // A newer query replaced this one
+            } catch (IllegalArgumentException ex) {
+                Platform.runLater(() -> {
+                    if (current == generation) {
+                        onInvalid.accept(ex.getMessage());
+                    }
+                });
+            } catch (RuntimeException ex) {
+                Platform.runLater(() -> {
+                    if (current == generation) {
+                        onFailure.accept(ex);
+                    }
+                });
+            }
         });
     }
+
+    private void cancelSearch() {
+        debounce.stop();
+        if (inFlight != null) {
+            // The interrupt stops the query planner; the repository's file reads ignore it, so a reload still completes
+            inFlight.cancel(true);
+        }
+    }
 }
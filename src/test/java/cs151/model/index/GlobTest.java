@@ -0,0 +1,92 @@
+package cs151.model.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests wildcard matching: anchoring at both ends, '*' runs of any length,
+ * and patterns whose literals overlap or repeat.
+ */
+class GlobTest {
+    @Test
+    void patternWithoutWildcardMatchesOnlyTheWholeText() {
+        Glob glob = Glob.compile("java");
+        assertTrue(glob.matches("java"));
+        assertFalse(glob.matches("javascript"));
+        assertFalse(glob.matches("ajava"));
+        assertFalse(glob.matches(""));
+    }
+
+    @Test
+    void patternIsAnchoredAtBothEnds() {
+        Glob glob = Glob.compile("j*a");
+        assertTrue(glob.matches("java"));
+        assertTrue(glob.matches("ja"));
+        assertFalse(glob.matches("javas"));
+        assertFalse(glob.matches("ajava"));
+    }
+
+    @Test
+    void leadingAndTrailingWildcardsMatchAnywhere() {
+        assertTrue(Glob.compile("*script").matches("javascript"));
+        assertFalse(Glob.compile("*script").matches("scripts"));
+        assertTrue(Glob.compile("java*").matches("javascript"));
+        assertFalse(Glob.compile("java*").matches("ajava"));
+        assertTrue(Glob.compile("*ava*").matches("java"));
+        assertTrue(Glob.compile("*ava*").matches("ava"));
+    }
+
+    @Test
+    void wildcardMatchesEmptyRun() {
+        assertTrue(Glob.compile("*").matches(""));
+        assertTrue(Glob.compile("**").matches("anything"));
+        assertTrue(Glob.compile("a*b").matches("ab"));
+        assertTrue(Glob.compile("a**b").matches("ab"));
+    }
+
+    @Test
+    void literalsMustAppearInOrderWithoutOverlapping() {
+        Glob glob = Glob.compile("*a*n*");
+        assertTrue(glob.matches("ann"));
+        assertTrue(glob.matches("xaxnx"));
+        assertFalse(glob.matches("na"));
+        // The anchored start and end literals may not share characters
+        assertFalse(Glob.compile("ab*ba").matches("aba"));
+        assertTrue(Glob.compile("ab*ba").matches("abba"));
+        assertFalse(Glob.compile("*aa*aa*").matches("aaa"));
+        assertTrue(Glob.compile("*aa*aa*").matches("aaaa"));
+    }
+
+    @Test
+    void middleLiteralMustFitBeforeAnchoredEnd() {
+        Glob glob = Glob.compile("a*b*c");
+        assertTrue(glob.matches("abc"));
+        assertTrue(glob.matches("axbxc"));
+        assertFalse(glob.matches("acb"));
+        assertFalse(glob.matches("ac"));
+    }
+
+    @Test
+    void matchingIsCaseSensitive() {
+        assertFalse(Glob.compile("java").matches("Java"));
+        assertFalse(Glob.compile("*va").matches("JAVA"));
+    }
+
+    @Test
+    void nullTextNeverMatches() {
+        assertFalse(Glob.compile("*").matches(null));
+        assertFalse(Glob.compile("java").matches(null));
+    }
+
+    @Test
+    void literalsAreTheRunsBetweenWildcards() {
+        assertEquals(List.of("ab", "c"), Glob.literals("*ab**c*"));
+        assertEquals(List.of(), Glob.literals("***"));
+        assertEquals(List.of("java"), Glob.literals("java"));
+    }
+}
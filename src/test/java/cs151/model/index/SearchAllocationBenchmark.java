@@ -0,0 +1,121 @@
+package cs151.model.index;
+
+import cs151.model.Student;
+import cs151.model.query.RelevanceRanker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the memory the search kernels allocate: Glob.matches,
+ * TrigramIndex verification and RelevanceRanker.topK. Each kernel runs over
+ * 1,000 and 10,000 candidates out of the same 10,000 indexed students, so
+ * with the GC profiler the bytes allocated per candidate are the difference
+ * in gc.alloc.rate.norm between the two sizes divided by 9,000. Per-query
+ * setup, such as the ranker's resolved terms, is the same at both sizes and
+ * drops out. TrigramIndex.search returns a bitmap over the candidate range,
+ * so it still shows about one bit per candidate.
+ *
+ * <p>Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main SearchAllocationBenchmark -prof gc"}.
+ * Candidate sets stay below TrigramIndex.PARALLEL_THRESHOLD, so verification
+ * runs on the benchmark thread, where the profiler sees its allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchAllocationBenchmark {
+    private static final int STUDENTS = 10_000;
+    private static final String PATTERN = "*a*n*";
+    private static final List<String> TERMS = List.of("java", "ann", "developer");
+
+    @Param({ "1000", "10000" })
+    private int candidates;
+
+    private String[] texts;
+    private Glob glob;
+    private TrigramIndex names;
+    private RelevanceRanker ranker;
+    private BitSet within;
+
+    @Setup
+    public void setUp() {
+        StudentIndexes indexes = new StudentIndexes();
+        names = new TrigramIndex();
+        texts = new String[STUDENTS + 1];
+        Random random = new Random(42);
+        for (int id = 1; id <= STUDENTS; id++) {
+            Student student = student(id, random);
+            indexes.add(student);
+            names.add(id, student.getFullName());
+            texts[id] = names.folded(id);
+        }
+        glob = Glob.compile(PATTERN);
+        ranker = new RelevanceRanker(indexes);
+        within = new BitSet();
+        within.set(1, candidates + 1);
+    }
+
+    @Benchmark
+    public int globMatches() {
+        int matched = 0;
+        for (int id = 1; id <= candidates; id++) {
+            if (glob.matches(texts[id])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public BitSet trigramSearch() {
+        return names.search(PATTERN, within);
+    }
+
+    @Benchmark
+    public List<RelevanceRanker.ScoredStudent> rankTopK() {
+        return ranker.topK(TERMS, within, 10);
+    }
+
+    /**
+     * Builds a student with random names and a few common list values.
+     */
+    private static Student student(int id, Random random) {
+        List<String> languages = new ArrayList<>(List.of("Java"));
+        if (random.nextBoolean()) {
+            languages.add("Python");
+        }
+        Student student = new Student(word(random) + " " + word(random), random.nextBoolean() ? "Senior" : "Junior",
+                false, null, languages, new ArrayList<>(List.of("MySQL")),
+                random.nextBoolean() ? "Developer" : "Data", new ArrayList<>(), false, false);
+        student.setId(id);
+        return student;
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        word.append((char) ('A' + random.nextInt(26)));
+        int length = 2 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
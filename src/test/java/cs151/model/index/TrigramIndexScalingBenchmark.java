@@ -0,0 +1,102 @@
+package cs151.model.index;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how TrigramIndex verification scales with cores: a pattern whose
+ * literals are too short for trigrams leaves every student a candidate, so
+ * search verifies them all, in parallel above PARALLEL_THRESHOLD. The search
+ * runs inside ForkJoin pools of increasing parallelism and is compared with a
+ * plain serial loop over the same candidates.
+ *
+ * <p>Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=cs151.model.index.TrigramIndexScalingBenchmark}
+ * and optionally {@code -Dexec.args="1000000"} for the number of students
+ * (default 500,000). Pools go up to twice the available processors, so the
+ * last rows show oversubscription. Each setting is measured five times after
+ * a warm-up round and the best time is reported. The README lists the results
+ * so far; the curve on a multi-core machine is still to be recorded.
+ */
+public class TrigramIndexScalingBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String PATTERN = "*a*n*";
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int size = args.length == 0 ? 500_000 : Integer.parseInt(args[0]);
+        TrigramIndex index = new TrigramIndex();
+        Random random = new Random(42);
+        for (int id = 1; id <= size; id++) {
+            index.add(id, text(random));
+        }
+        BitSet all = new BitSet();
+        all.set(1, size + 1);
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d students, pattern %s, %d available processors%n", size, PATTERN, processors);
+
+        Glob glob = Glob.compile(PATTERN);
+        long serial = Long.MAX_VALUE;
+        int expected = -1;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            BitSet matches = new BitSet();
+            for (int id = all.nextSetBit(0); id >= 0; id = all.nextSetBit(id + 1)) {
+                if (glob.matches(index.folded(id))) {
+                    matches.set(id);
+                }
+            }
+            long time = System.nanoTime() - start;
+            expected = matches.cardinality();
+            // The first round only warms up the JIT
+            if (round > 0) {
+                serial = Math.min(serial, time);
+            }
+        }
+        System.out.printf("%d matches%n", expected);
+        System.out.printf("%-10s %10s %10s%n", "pool", "best", "speedup");
+        System.out.printf("%-10s %8.1fms %9.2fx%n", "serial", serial / 1e6, 1.0);
+
+        for (int parallelism = 1; parallelism <= 2 * processors; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round <= ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    int found = pool.submit(() -> index.search(PATTERN, all)).get().cardinality();
+                    long time = System.nanoTime() - start;
+                    if (found != expected) {
+                        throw new IllegalStateException("Found " + found + " matches, expected " + expected);
+                    }
+                    if (round > 0) {
+                        best = Math.min(best, time);
+                    }
+                }
+                System.out.printf("%-10s %8.1fms %9.2fx%n", parallelism + " threads", best / 1e6,
+                        (double) serial / best);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Builds a lower-case text of a few random words; about one text in six
+     * matches the pattern.
+     */
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 2 + random.nextInt(4);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            int length = 3 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return text.toString();
+    }
+}
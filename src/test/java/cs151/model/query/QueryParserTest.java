@@ -0,0 +1,158 @@
+package cs151.model.query;
+
+import cs151.model.index.StudentIndexes.Attribute;
+import cs151.model.index.StudentIndexes.Flag;
+import cs151.model.index.StudentIndexes.TextField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the search syntax: each clause type, how clauses combine with AND,
+ * OR and '-', and the errors for malformed queries.
+ */
+class QueryParserTest {
+    private static final Query EVERYONE = new Query.And(List.of());
+
+    @Test
+    void blankQueryMatchesEveryone() {
+        assertEquals(EVERYONE, QueryParser.parse(null));
+        assertEquals(EVERYONE, QueryParser.parse(""));
+        assertEquals(EVERYONE, QueryParser.parse("   "));
+    }
+
+    @Test
+    void plainWordsFormOnePhrase() {
+        assertEquals(new Query.AnyTerm("java"), QueryParser.parse("Java"));
+        assertEquals(new Query.AnyTerm("jean dupont"), QueryParser.parse("  Jean Dupont "));
+        // The spacing between the words is kept
+        assertEquals(new Query.AnyTerm("jean  dupont"), QueryParser.parse("jean  dupont"));
+    }
+
+    @Test
+    void quotedPhraseIsPlainText() {
+        assertEquals(new Query.AnyTerm("jean dupont"), QueryParser.parse("\" Jean Dupont \""));
+    }
+
+    @Test
+    void bareFlagKeywordIsPlainText() {
+        assertEquals(new Query.AnyTerm("employed"), QueryParser.parse("employed"));
+        assertEquals(new Query.AnyTerm("blacklisted"), QueryParser.parse("blacklisted"));
+    }
+
+    @Test
+    void fieldClausesMatchTheirAttribute() {
+        assertEquals(new Query.ValueTerm(Attribute.LANGUAGE, "java"), QueryParser.parse("lang:Java"));
+        assertEquals(new Query.ValueTerm(Attribute.LANGUAGE, "c++"), QueryParser.parse("language:C++"));
+        assertEquals(new Query.ValueTerm(Attribute.DATABASE, "my*"), QueryParser.parse("db:My*"));
+        assertEquals(new Query.ValueTerm(Attribute.STATUS, "senior"), QueryParser.parse("status:Senior"));
+        assertEquals(new Query.ValueTerm(Attribute.ROLE, "data analyst"), QueryParser.parse("role:\"Data Analyst\""));
+    }
+
+    @Test
+    void textClausesMatchAnywhereUnlessTheyHaveWildcards() {
+        assertEquals(new Query.TextTerm(TextField.NAME, "*ann*"), QueryParser.parse("name:Ann"));
+        assertEquals(new Query.TextTerm(TextField.NAME, "ann*"), QueryParser.parse("name:\"Ann*\""));
+        assertEquals(new Query.TextTerm(TextField.JOB_DETAILS, "*intern*"), QueryParser.parse("job:intern"));
+    }
+
+    @Test
+    void flagClausesNeedIs() {
+        assertEquals(new Query.FlagTerm(Flag.EMPLOYED, true), QueryParser.parse("is:employed"));
+        assertEquals(new Query.FlagTerm(Flag.EMPLOYED, false), QueryParser.parse("is:unemployed"));
+        assertEquals(new Query.FlagTerm(Flag.WHITELISTED, true), QueryParser.parse("is:whitelisted"));
+        assertEquals(new Query.FlagTerm(Flag.BLACKLISTED, true), QueryParser.parse("IS:Blacklisted"));
+    }
+
+    @Test
+    void fuzzyClauseTakesAnOptionalDistance() {
+        assertEquals(new Query.FuzzyTerm("jonh", QueryParser.DEFAULT_FUZZY_DISTANCE), QueryParser.parse("fuzzy:jonh"));
+        assertEquals(new Query.FuzzyTerm("jonh smtih", 1), QueryParser.parse("fuzzy:\"Jonh Smtih\"~1"));
+        assertEquals(new Query.FuzzyTerm("jonh", 0), QueryParser.parse("fuzzy:jonh~0"));
+    }
+
+    @Test
+    void commentClauseNeedsEveryWord() {
+        assertEquals(new Query.CommentTerm("intern*"), QueryParser.parse("comment:Intern*"));
+        assertEquals(new Query.And(List.of(new Query.CommentTerm("great"), new Query.CommentTerm("work"))),
+                QueryParser.parse("comment:\"great, work\""));
+    }
+
+    @Test
+    void commentDateClauseCoversDaysMonthsYearsAndRanges() {
+        assertEquals(new Query.CommentDateTerm(LocalDate.of(2025, 9, 15), LocalDate.of(2025, 9, 15)),
+                QueryParser.parse("commented:2025-09-15"));
+        assertEquals(new Query.CommentDateTerm(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)),
+                QueryParser.parse("commented:2024-02"));
+        assertEquals(new Query.CommentDateTerm(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)),
+                QueryParser.parse("commented:2025"));
+        assertEquals(new Query.CommentDateTerm(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 10, 31)),
+                QueryParser.parse("commented:2025-09..2025-10"));
+        assertEquals(new Query.CommentDateTerm(LocalDate.of(2025, 9, 1), null), QueryParser.parse("commented:2025-09.."));
+        assertEquals(new Query.CommentDateTerm(null, LocalDate.of(2025, 12, 31)), QueryParser.parse("commented:..2025"));
+    }
+
+    @Test
+    void clausesCombineWithAnd() {
+        assertEquals(new Query.And(List.of(
+                        new Query.ValueTerm(Attribute.LANGUAGE, "java"),
+                        new Query.AnyTerm("jean dupont"),
+                        new Query.FlagTerm(Flag.EMPLOYED, true))),
+                QueryParser.parse("lang:java Jean Dupont is:employed"));
+    }
+
+    @Test
+    void fieldClauseEndsAPhrase() {
+        assertEquals(new Query.And(List.of(
+                        new Query.AnyTerm("jean"),
+                        new Query.ValueTerm(Attribute.LANGUAGE, "java"),
+                        new Query.AnyTerm("dupont"))),
+                QueryParser.parse("jean lang:java dupont"));
+    }
+
+    @Test
+    void orBindsLooserThanAnd() {
+        assertEquals(new Query.Or(List.of(
+                        new Query.And(List.of(new Query.ValueTerm(Attribute.LANGUAGE, "java"),
+                                new Query.FlagTerm(Flag.EMPLOYED, true))),
+                        new Query.AnyTerm("python"))),
+                QueryParser.parse("lang:java is:employed OR python"));
+        // Only upper-case OR on its own is the operator
+        assertEquals(new Query.AnyTerm("java or python"), QueryParser.parse("java or python"));
+        assertEquals(new Query.AnyTerm("java orange"), QueryParser.parse("java orange"));
+    }
+
+    @Test
+    void minusNegatesOneClause() {
+        assertEquals(new Query.Not(new Query.FlagTerm(Flag.BLACKLISTED, true)), QueryParser.parse("-is:blacklisted"));
+        assertEquals(new Query.And(List.of(new Query.AnyTerm("java"), new Query.Not(new Query.AnyTerm("senior")))),
+                QueryParser.parse("java -senior"));
+        assertEquals(new Query.Not(new Query.AnyTerm("jean dupont")), QueryParser.parse("-\"jean dupont\""));
+    }
+
+    @Test
+    void malformedQueriesAreRejected() {
+        assertError("Unknown search field: colour:", "colour:red");
+        assertError("Unknown flag: is:happy", "is:happy");
+        assertError("Expected a value after 'lang:'", "lang:");
+        assertError("Unterminated quote at position 6", "name:\"ann");
+        assertError("Empty quoted value at position 9", "name:\"  \"");
+        assertError("Expected a search term after '-'", "java - python");
+        assertError("OR must have a clause on both sides", "java OR");
+        assertError("OR must have a clause on both sides", "OR java");
+        assertError("Expected a word after comment:", "comment:!!");
+        assertError("Expected fuzzy:value~N with N from 0 to 3", "fuzzy:jonh~4");
+        assertError("Expected fuzzy:value~N with N from 0 to 3", "fuzzy:~1");
+        assertThrows(IllegalArgumentException.class, () -> QueryParser.parse("commented:2025-13"));
+        assertThrows(IllegalArgumentException.class, () -> QueryParser.parse("commented:.."));
+    }
+
+    private static void assertError(String message, String query) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> QueryParser.parse(query));
+        assertEquals(message, e.getMessage());
+    }
+}
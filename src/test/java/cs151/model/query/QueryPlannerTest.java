@@ -0,0 +1,238 @@
+package cs151.model.query;
+
+import cs151.model.Student;
+import cs151.model.index.StudentIndexes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the planner's results against a brute-force scan that applies each
+ * clause's documented meaning to every student directly, over random
+ * students and random queries. Terms are both long enough for the trigram
+ * indexes and too short for them, so both ways of answering a text clause
+ * are covered.
+ */
+class QueryPlannerTest {
+    private static final int STUDENTS = 300;
+    private static final int QUERIES = 2_000;
+
+    private static final String[] SYLLABLES = { "an", "na", "jo", "ma", "ri", "el", "to", "li", "son", "ber" };
+    private static final String[] LANGUAGES = { "Java", "JavaScript", "Python", "C++", "Go" };
+    private static final String[] DATABASES = { "MySQL", "PostgreSQL", "MongoDB", "SQLite" };
+    private static final String[] ROLES = { "Developer", "Data Analyst", "Tester", "Manager" };
+    private static final String[] STATUSES = { "Freshman", "Sophomore", "Junior", "Senior", "Graduate" };
+    private static final String[] JOBS = { null, "Intern at Acme", "Part-time tutor", "Java developer at Initech" };
+
+    // Clauses the random queries are built from, covering every profile clause type
+    private static final String[] CLAUSES = {
+            "lang:java", "lang:java*", "lang:*script", "db:mysql", "db:*sql*", "role:\"data analyst\"",
+            "status:senior", "status:*o*", "name:an", "name:jo*", "name:\"*son\"", "name:ber", "job:intern",
+            "job:\"*at*\"", "is:employed", "is:unemployed", "is:whitelisted", "is:blacklisted", "java",
+            "an", "a", "sql", "ma", "son", "employed", "list", "\"at acme\"", "senior", "xyz" };
+
+    private final List<Student> students = new ArrayList<>();
+    private final StudentIndexes indexes = new StudentIndexes();
+    private final Random random = new Random(7);
+
+    @BeforeEach
+    void setUp() {
+        for (int id = 1; id <= STUDENTS; id++) {
+            Student student = randomStudent(id);
+            students.add(student);
+            indexes.add(student);
+        }
+    }
+
+    @Test
+    void everyClauseMatchesTheBruteForceScan() {
+        QueryPlanner planner = new QueryPlanner(indexes);
+        for (String clause : CLAUSES) {
+            Query query = QueryParser.parse(clause);
+            assertEquals(scan(query), planner.execute(query), clause);
+            Query negated = QueryParser.parse("-" + clause);
+            assertEquals(scan(negated), planner.execute(negated), "-" + clause);
+        }
+    }
+
+    @Test
+    void randomQueriesMatchTheBruteForceScan() {
+        QueryPlanner planner = new QueryPlanner(indexes);
+        for (int i = 0; i < QUERIES; i++) {
+            String text = randomQuery();
+            Query query = QueryParser.parse(text);
+            assertEquals(scan(query), planner.execute(query), text);
+        }
+    }
+
+    @Test
+    void narrowedQueriesMatchTheBruteForceScan() {
+        QueryPlanner planner = new QueryPlanner(indexes);
+        for (int i = 0; i < QUERIES; i++) {
+            String olderText = randomQuery();
+            String newerText = olderText + " " + CLAUSES[random.nextInt(CLAUSES.length)];
+            Query older = QueryParser.parse(olderText);
+            Query newer = QueryParser.parse(newerText);
+            if (QueryPlanner.narrows(newer, older)) {
+                assertEquals(scan(newer), planner.execute(newer, planner.execute(older)), newerText);
+            }
+        }
+    }
+
+    @Test
+    void longerSearchTermNarrowsShorterOne() {
+        assertTrue(QueryPlanner.narrows(QueryParser.parse("javas"), QueryParser.parse("java")));
+        assertTrue(QueryPlanner.narrows(QueryParser.parse("name:anna"), QueryParser.parse("name:ann")));
+        assertTrue(QueryPlanner.narrows(QueryParser.parse("java is:employed"), QueryParser.parse("java")));
+        assertFalse(QueryPlanner.narrows(QueryParser.parse("java"), QueryParser.parse("java is:employed")));
+        assertFalse(QueryPlanner.narrows(QueryParser.parse("name:ann*"), QueryParser.parse("name:an*")));
+    }
+
+    /**
+     * Builds a query of one to four clauses, some negated, joined by AND or OR.
+     */
+    private String randomQuery() {
+        StringBuilder query = new StringBuilder();
+        int clauses = 1 + random.nextInt(4);
+        for (int c = 0; c < clauses; c++) {
+            if (c > 0) {
+                query.append(random.nextInt(4) == 0 ? " OR " : " ");
+            }
+            if (random.nextInt(4) == 0) {
+                query.append('-');
+            }
+            query.append(CLAUSES[random.nextInt(CLAUSES.length)]);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Finds the matching students by checking every one of them.
+     */
+    private BitSet scan(Query query) {
+        BitSet matches = new BitSet();
+        for (Student student : students) {
+            if (matches(query, student)) {
+                matches.set((int) student.getId());
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matches(Query query, Student student) {
+        return switch (query) {
+            case Query.And and -> and.clauses().stream().allMatch(clause -> matches(clause, student));
+            case Query.Or or -> or.alternatives().stream().anyMatch(alternative -> matches(alternative, student));
+            case Query.Not not -> !matches(not.clause(), student);
+            case Query.ValueTerm term -> values(term.attribute(), student).stream()
+                    .anyMatch(value -> wildcard(term.pattern(), fold(value)));
+            case Query.TextTerm term -> {
+                String text = term.field() == StudentIndexes.TextField.NAME
+                        ? student.getFullName() : student.getJobDetails();
+                yield text != null && wildcard(term.pattern(), fold(text));
+            }
+            case Query.FlagTerm term -> flag(term.flag(), student) == term.value();
+            case Query.AnyTerm term -> containsAnywhere(term.text(), student);
+            default -> throw new IllegalArgumentException("Not a profile clause: " + query);
+        };
+    }
+
+    private static boolean containsAnywhere(String text, Student student) {
+        for (StudentIndexes.Attribute attribute : StudentIndexes.Attribute.values()) {
+            if (values(attribute, student).stream().anyMatch(value -> fold(value).contains(text))) {
+                return true;
+            }
+        }
+        if (fold(student.getFullName()).contains(text)
+                || (student.getJobDetails() != null && fold(student.getJobDetails()).contains(text))) {
+            return true;
+        }
+        return ("employed".contains(text) && student.isEmployed())
+                || ("unemployed".contains(text) && !student.isEmployed())
+                || ("whitelist".contains(text) && student.isWhitelisted())
+                || ("blacklist".contains(text) && student.isBlacklisted());
+    }
+
+    private static List<String> values(StudentIndexes.Attribute attribute, Student student) {
+        return switch (attribute) {
+            case LANGUAGE -> student.getProgrammingLanguages();
+            case DATABASE -> student.getDatabasesKnown();
+            case ROLE -> List.of(student.getPreferredProfessionalRole());
+            case STATUS -> List.of(student.getAcademicStatus());
+        };
+    }
+
+    private static boolean flag(StudentIndexes.Flag flag, Student student) {
+        return switch (flag) {
+            case EMPLOYED -> student.isEmployed();
+            case WHITELISTED -> student.isWhitelisted();
+            case BLACKLISTED -> student.isBlacklisted();
+        };
+    }
+
+    /**
+     * Matches a whole text against a pattern with a regular expression, as a
+     * reference for the indexes' own matching.
+     */
+    private static boolean wildcard(String pattern, String text) {
+        StringBuilder regex = new StringBuilder();
+        for (String literal : pattern.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(literal));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL).matcher(text).matches();
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private Student randomStudent(int id) {
+        Student student = new Student(randomName(), pick(STATUSES), random.nextBoolean(), pick(JOBS),
+                randomSubset(LANGUAGES), randomSubset(DATABASES), pick(ROLES), new ArrayList<>(),
+                random.nextInt(4) == 0, random.nextInt(5) == 0);
+        student.setId(id);
+        return student;
+    }
+
+    private String randomName() {
+        StringBuilder name = new StringBuilder();
+        for (int word = 0; word < 2; word++) {
+            if (word > 0) {
+                name.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                String syllable = pick(SYLLABLES);
+                name.append(s == 0 ? Character.toUpperCase(syllable.charAt(0)) + syllable.substring(1) : syllable);
+            }
+        }
+        return name.toString();
+    }
+
+    private List<String> randomSubset(String[] values) {
+        List<String> subset = new ArrayList<>();
+        for (String value : values) {
+            if (random.nextInt(3) == 0) {
+                subset.add(random.nextBoolean() ? value : value.toUpperCase(Locale.ROOT));
+            }
+        }
+        return subset;
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
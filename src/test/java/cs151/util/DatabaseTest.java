@@ -0,0 +1,135 @@
+package cs151.util;
+
+import cs151.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests loading students from the students.json snapshot with the students
+ * log replayed on top, including a log whose last record was torn by an
+ * interrupted append. Surefire runs the tests in their own working
+ * directory, so the data files here are not the application's.
+ */
+class DatabaseTest {
+    private static final Path DATA = Path.of("src/main/data");
+    private static final Path LOG = DATA.resolve("students.log");
+
+    @BeforeEach
+    void clearData() throws IOException {
+        if (Files.exists(DATA)) {
+            try (Stream<Path> files = Files.walk(DATA)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        // Starts every test from a snapshot of two students and an empty log
+        Database.updateStudents(List.of(student(1, "Ann Lee", null), student(2, "Bob Ray", null)));
+    }
+
+    @Test
+    void snapshotLoadsWithoutLog() {
+        assertEquals(List.of("Ann Lee null", "Bob Ray null"), describe(Database.loadStudents()));
+    }
+
+    @Test
+    void logIsReplayedOverSnapshot() throws IOException {
+        writeLog();
+        List<Student> students = Database.loadStudents();
+        assertEquals(List.of("Ann Lee-Park Tutor", "Cal Diaz null"), describe(students));
+        assertEquals(1, idOf(students, "Ann Lee-Park"));
+        // The added student got a new ID, not the deleted student's
+        assertTrue(idOf(students, "Cal Diaz") > 2);
+    }
+
+    @Test
+    void tornLastRecordIsSkipped() throws IOException {
+        writeLog();
+        tearLog();
+        assertEquals(List.of("Ann Lee-Park Tutor", "Cal Diaz null"), describe(Database.loadStudents()));
+    }
+
+    @Test
+    void recordAppendedAfterTornRecordIsKept() throws IOException {
+        writeLog();
+        tearLog();
+        Database.addStudent(student(0, "Dee Fox", null));
+        List<Student> students = Database.loadStudents();
+        assertEquals(List.of("Ann Lee-Park Tutor", "Cal Diaz null", "Dee Fox null"), describe(students));
+        assertTrue(idOf(students, "Dee Fox") > idOf(students, "Cal Diaz"));
+    }
+
+    @Test
+    void checkpointFoldsLogIntoSnapshot() throws IOException {
+        writeLog();
+        Database.checkpoint();
+        assertFalse(Files.exists(LOG));
+        assertEquals(List.of("Ann Lee-Park Tutor", "Cal Diaz null"), describe(Database.loadStudents()));
+    }
+
+    @Test
+    void deletedStudentIsGone() throws IOException {
+        Database.deleteStudent(1);
+        List<Student> students = Database.loadStudents();
+        assertEquals(List.of("Bob Ray null"), describe(students));
+        assertEquals(2, idOf(students, "Bob Ray"));
+    }
+
+    /**
+     * Logs an update, an add and a delete on top of the snapshot.
+     */
+    private static void writeLog() throws IOException {
+        Database.updateStudent(student(1, "Ann Lee-Park", "Tutor"));
+        Database.addStudent(student(0, "Cal Diaz", null));
+        Database.deleteStudent(2);
+    }
+
+    /**
+     * Appends the start of an update record without finishing it or its
+     * line, as a crash in the middle of an append leaves it.
+     */
+    private static void tearLog() throws IOException {
+        Files.writeString(LOG, "{\"op\":\"update\",\"student\":{\"id\":3,\"fullName\":\"Cal D",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static Student student(long id, String fullName, String jobDetails) {
+        Student student = new Student(fullName, "Senior", jobDetails != null, jobDetails,
+                new ArrayList<>(List.of("Java")), new ArrayList<>(List.of("MySQL")), "Developer", new ArrayList<>(),
+                false, false);
+        student.setId(id);
+        return student;
+    }
+
+    /**
+     * Describes each student by name and job details, in the order loaded,
+     * which is by name.
+     */
+    private static List<String> describe(List<Student> students) {
+        return students.stream()
+                .map(s -> s.getFullName() + " " + s.getJobDetails())
+                .toList();
+    }
+
+    private static long idOf(List<Student> students, String fullName) {
+        return students.stream()
+                .filter(s -> s.getFullName().equals(fullName))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+}
@@ -0,0 +1,164 @@
+package cs151.util;
+
+import cs151.model.Comment;
+import cs151.model.Student;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares loading and saving students.json through StudentJsonCodec with
+ * the org.json tree the Database used before: read the whole file into a
+ * String, parse it into a JSONObject, then map each object to a Student,
+ * and the reverse for saving.
+ *
+ * <p>Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=cs151.util.StudentJsonCodecBenchmark}
+ * and optionally {@code -Dexec.args="10000 100000 1000000"} for the record
+ * counts. Each count is measured three times after a warm-up round and the
+ * best time is reported. A million records needs about 4 GB of heap
+ * ({@code MAVEN_OPTS=-Xmx4g}).
+ */
+public class StudentJsonCodecBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[] { 10_000, 100_000, 1_000_000 } : parseSizes(args);
+        Path dir = Files.createTempDirectory("codec-bench");
+        System.out.printf("%-10s %12s %12s %12s %12s%n", "records", "read tree", "read codec", "write tree",
+                "write codec");
+        for (int size : sizes) {
+            Path file = dir.resolve("students-" + size + ".json");
+            try (Writer out = Files.newBufferedWriter(file)) {
+                StudentJsonCodec.writeStudents(out, students(size), size + 1);
+            }
+            long readTree = Long.MAX_VALUE;
+            long readCodec = Long.MAX_VALUE;
+            long writeTree = Long.MAX_VALUE;
+            long writeCodec = Long.MAX_VALUE;
+            for (int round = 0; round <= ROUNDS; round++) {
+                System.gc();
+                long start = System.nanoTime();
+                // Only the count is kept, so the decoded copies are not alive at once
+                int fromTree = readTree(file).size();
+                long treeRead = System.nanoTime();
+                List<Student> fromCodec;
+                try (Reader in = Files.newBufferedReader(file)) {
+                    fromCodec = StudentJsonCodec.readStudents(in).students();
+                }
+                long codecRead = System.nanoTime();
+                writeTree(dir.resolve("tree.json"), fromCodec);
+                long treeWrite = System.nanoTime();
+                try (Writer out = Files.newBufferedWriter(dir.resolve("codec.json"))) {
+                    StudentJsonCodec.writeStudents(out, fromCodec, size + 1);
+                }
+                long codecWrite = System.nanoTime();
+                if (fromTree != size || fromCodec.size() != size) {
+                    throw new IllegalStateException("Decoded " + fromTree + " and " + fromCodec.size()
+                            + " students, expected " + size);
+                }
+                // The first round only warms up the JIT
+                if (round > 0) {
+                    readTree = Math.min(readTree, treeRead - start);
+                    readCodec = Math.min(readCodec, codecRead - treeRead);
+                    writeTree = Math.min(writeTree, treeWrite - codecRead);
+                    writeCodec = Math.min(writeCodec, codecWrite - treeWrite);
+                }
+            }
+            System.out.printf("%-10d %10dms %10dms %10dms %10dms%n", size, readTree / 1_000_000,
+                    readCodec / 1_000_000, writeTree / 1_000_000, writeCodec / 1_000_000);
+        }
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+
+    /**
+     * Builds students with every field set, one comment each, and names that
+     * need escaping.
+     */
+    private static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Comment> comments = new ArrayList<>();
+            comments.add(new Comment("Comment for student " + i + " with some text"));
+            Student student = new Student("First" + i + " Last \"q\"", "Senior", i % 2 == 0,
+                    i % 2 == 0 ? "Job " + i : null, new ArrayList<>(List.of("Java", "Python")),
+                    new ArrayList<>(List.of("MySQL")), "Data", comments, i % 3 == 0, i % 5 == 0);
+            student.setId(i + 1);
+            students.add(student);
+        }
+        return students;
+    }
+
+    private static List<Student> readTree(Path file) throws IOException {
+        JSONArray array = new JSONObject(Files.readString(file)).getJSONArray("students");
+        List<Student> students = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject s = array.getJSONObject(i);
+            List<Comment> comments = new ArrayList<>();
+            JSONArray commentArray = s.optJSONArray("comments");
+            for (int j = 0; commentArray != null && j < commentArray.length(); j++) {
+                JSONObject c = commentArray.getJSONObject(j);
+                comments.add(Comment.fromDatabase(c.optString("created_at_date", null),
+                        c.optString("comment_text", null)));
+            }
+            students.add(new Student(s.optString("name", null), s.optString("academic_status", null),
+                    s.optBoolean("employed", false), s.isNull("job_details") ? null : s.optString("job_details"),
+                    strings(s.optJSONArray("programming_languages")), strings(s.optJSONArray("databases")),
+                    s.optString("preferred_role", null), comments, s.optBoolean("whitelist", false),
+                    s.optBoolean("blacklist", false)));
+        }
+        return students;
+    }
+
+    private static List<String> strings(JSONArray array) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; array != null && i < array.length(); i++) {
+            values.add(array.getString(i));
+        }
+        return values;
+    }
+
+    private static void writeTree(Path file, List<Student> students) throws IOException {
+        JSONArray array = new JSONArray();
+        for (Student student : students) {
+            JSONObject s = new JSONObject();
+            s.put("id", student.getId());
+            s.put("name", student.getFullName());
+            s.put("academic_status", student.getAcademicStatus());
+            s.put("employed", student.isEmployed());
+            s.put("job_details", student.getJobDetails() != null ? student.getJobDetails() : JSONObject.NULL);
+            s.put("programming_languages", student.getProgrammingLanguages());
+            s.put("databases", student.getDatabasesKnown());
+            s.put("preferred_role", student.getPreferredProfessionalRole());
+            s.put("whitelist", student.isWhitelisted());
+            s.put("blacklist", student.isBlacklisted());
+            JSONArray comments = new JSONArray();
+            for (Comment comment : student.getComments()) {
+                JSONObject c = new JSONObject();
+                c.put("created_at_date", comment.getCreatedAt().toString());
+                c.put("comment_text", comment.getText());
+                comments.put(c);
+            }
+            s.put("comments", comments);
+            array.put(s);
+        }
+        JSONObject root = new JSONObject();
+        root.put("next_id", students.size() + 1);
+        root.put("students", array);
+        Files.writeString(file, root.toString(2));
+    }
+}